@@ -14,7 +14,6 @@ import org.springframework.security.config.annotation.method.configuration.Enabl
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
@@ -35,19 +34,18 @@ public class SecurityConfig {
     @Autowired
     private JwtAuthenticationFilter jwtAuthenticationFilter;
 
+    // BCrypt on its own bounded pool (BoundedPasswordEncoder)
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
     @Value("${cors.allowed-origins}")
     private String allowedOrigins;
 
-    @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
-    }
-
     @Bean
     public AuthenticationProvider authenticationProvider() {
         DaoAuthenticationProvider authProvider = new DaoAuthenticationProvider();
         authProvider.setUserDetailsService(userDetailsService);
-        authProvider.setPasswordEncoder(passwordEncoder());
+        authProvider.setPasswordEncoder(passwordEncoder);
         return authProvider;
     }
 
@@ -67,7 +65,8 @@ public class SecurityConfig {
                 .authorizeHttpRequests(auth -> auth
                     .requestMatchers("/api/auth/login", "/api/auth/signup", "/api/auth/health").permitAll()
                     .requestMatchers("/health", "/api/pools/active", "/api/squares/pool/**", "/api/sheets/**").permitAll()
-                    .requestMatchers("/admin/**", "/api/admin/**").hasRole("ADMIN")
+                    .requestMatchers("/actuator/health").permitAll()
+                    .requestMatchers("/admin/**", "/api/admin/**", "/actuator/**").hasRole("ADMIN")
                     .anyRequest().authenticated()
                 )
                 .authenticationProvider(authenticationProvider())
@@ -1,12 +1,19 @@
 package com.superbowl.squares.controller;
 
 import com.fasterxml.jackson.annotation.JsonView;
+import com.superbowl.squares.dto.BulkCreatePoolsRequest;
+import com.superbowl.squares.dto.ClonePoolRequest;
 import com.superbowl.squares.dto.CreatePoolRequest;
+import com.superbowl.squares.dto.GridReconcileReport;
+import com.superbowl.squares.dto.OwnersRebuildReport;
 import com.superbowl.squares.dto.PaymentInfoRequest;
 import com.superbowl.squares.dto.ProfileRequest;
+import com.superbowl.squares.dto.ScoreUpdateResponse;
 import com.superbowl.squares.dto.UpdateScoreRequest;
 import com.superbowl.squares.dto.UpdateUserRequest;
-import com.superbowl.squares.model.GameScore;
+import com.superbowl.squares.exception.SheetsUnavailableException;
+import com.superbowl.squares.google.GridSheetReconciler;
+import com.superbowl.squares.google.OwnersSheetSync;
 import com.superbowl.squares.model.PaymentInfo;
 import com.superbowl.squares.model.Pool;
 import com.superbowl.squares.model.Profile;
@@ -39,6 +46,12 @@ public class AdminController {
     @Autowired
     private AdminService adminService;
 
+    @Autowired
+    private GridSheetReconciler gridSheetReconciler;
+
+    @Autowired
+    private OwnersSheetSync ownersSheetSync;
+
     // Get all profiles with user email for admin assignment
     @GetMapping("/profiles")
     public ResponseEntity<List<Map<String, Object>>> getAllProfiles() {
@@ -52,6 +65,18 @@ public class AdminController {
         return ResponseEntity.ok(pool);
     }
 
+    // Season setup: create several pools from a list of name/bet templates in one transaction.
+    @PostMapping("/pools/bulk")
+    public ResponseEntity<List<Pool>> createPools(@Valid @RequestBody BulkCreatePoolsRequest request) {
+        return ResponseEntity.ok(poolService.createPools(request.getPools()));
+    }
+
+    // Creates new pools with the same settings as an existing one.
+    @PostMapping("/pools/{id}/clone")
+    public ResponseEntity<List<Pool>> clonePool(@PathVariable Long id, @Valid @RequestBody ClonePoolRequest request) {
+        return ResponseEntity.ok(poolService.clonePool(id, request.getPoolNames()));
+    }
+
     @GetMapping("/pools")
     public ResponseEntity<List<Pool>> getAllPools() {
         return ResponseEntity.ok(poolService.getAllPools());
@@ -189,10 +214,10 @@ public class AdminController {
     }
 
     @PutMapping("/scores")
-    public ResponseEntity<GameScore> updateScore(@Valid @RequestBody UpdateScoreRequest request) {
+    public ResponseEntity<?> updateScore(@Valid @RequestBody UpdateScoreRequest request) {
         try {
-            GameScore score = gameScoreService.updateScore(request);
-            return ResponseEntity.ok(score);
+            ScoreUpdateResponse response = gameScoreService.updateScore(request);
+            return ResponseEntity.ok(response);
         } catch (Exception e) {
             return ResponseEntity.badRequest().build();
         }
@@ -212,4 +237,29 @@ public class AdminController {
     public ResponseEntity<List<Winner>> getRecentWinners() {
         return ResponseEntity.ok(adminService.getAllWinnersWithDetails());
     }
+
+    // Rewrites every sheet grid cell that no longer matches the database and reports how many drifted.
+    @PostMapping("/sheets/reconcile")
+    public ResponseEntity<?> reconcileSheets() {
+        try {
+            GridReconcileReport report = gridSheetReconciler.reconcile();
+            return ResponseEntity.ok(report);
+        } catch (SheetsUnavailableException e) {
+            throw e;
+        } catch (Exception e) {
+            return ResponseEntity.status(500).body("Failed to reconcile sheets: " + e.getMessage());
+        }
+    }
+
+    @PostMapping("/sheets/owners/rebuild")
+    public ResponseEntity<?> rebuildOwnersSheet() {
+        try {
+            OwnersRebuildReport report = ownersSheetSync.rebuild();
+            return ResponseEntity.ok(report);
+        } catch (SheetsUnavailableException e) {
+            throw e;
+        } catch (Exception e) {
+            return ResponseEntity.status(500).body("Failed to rebuild Owners sheet: " + e.getMessage());
+        }
+    }
 }
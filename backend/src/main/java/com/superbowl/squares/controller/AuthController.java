@@ -4,9 +4,12 @@ import com.fasterxml.jackson.annotation.JsonView;
 import com.superbowl.squares.dto.AuthResponse;
 import com.superbowl.squares.dto.LoginRequest;
 import com.superbowl.squares.dto.SignupRequest;
+import com.superbowl.squares.exception.TooManyRequestsException;
 import com.superbowl.squares.model.User;
+import com.superbowl.squares.security.AuthThrottle;
 import com.superbowl.squares.service.AuthService;
 import com.superbowl.squares.view.View;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
@@ -20,17 +23,24 @@ public class AuthController {
     @Autowired
     private AuthService authService;
 
+    @Autowired
+    private AuthThrottle authThrottle;
+
     @PostMapping("/signup")
-    public ResponseEntity<AuthResponse> signup(@Valid @RequestBody SignupRequest request) {
+    public ResponseEntity<AuthResponse> signup(@Valid @RequestBody SignupRequest request, HttpServletRequest httpRequest) {
+        authThrottle.check(httpRequest.getRemoteAddr(), request.getEmail());
         AuthResponse response = authService.signup(request);
         return ResponseEntity.ok(response);
     }
 
     @PostMapping("/login")
-    public ResponseEntity<AuthResponse> login(@Valid @RequestBody LoginRequest request) {
+    public ResponseEntity<AuthResponse> login(@Valid @RequestBody LoginRequest request, HttpServletRequest httpRequest) {
+        authThrottle.check(httpRequest.getRemoteAddr(), request.getEmail());
         try {
             AuthResponse response = authService.login(request);
             return ResponseEntity.ok(response);
+        } catch (TooManyRequestsException e) {
+            throw e;
         } catch (Exception e) {
             return ResponseEntity.status(401).build();
         }
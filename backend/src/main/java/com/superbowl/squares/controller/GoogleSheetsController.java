@@ -1,6 +1,11 @@
 package com.superbowl.squares.controller;
 
-import com.superbowl.squares.google.GoogleSheetsService;
+import com.superbowl.squares.exception.SheetsUnavailableException;
+import com.superbowl.squares.google.GridSheetWriteBehind;
+import com.superbowl.squares.google.OwnersSheetSync;
+import com.superbowl.squares.google.ScoreboardCache;
+import com.superbowl.squares.google.ScoreboardSnapshot;
+import com.superbowl.squares.google.SheetsGateway;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -19,10 +24,20 @@ public class GoogleSheetsController {
                     @PathVariable String poolName
             ) {
                 logger.debug("[getNfcScores] spreadsheetId={}, poolName={}", spreadsheetId, poolName);
+                if (OwnersSheetSync.SPREADSHEET_ID.equals(spreadsheetId)) {
+                    ScoreboardSnapshot.PoolScores scores = scoreboardCache.getScores(poolName);
+                    if (scores == null) {
+                        // Unknown pool, or no tab as of the latest snapshot: answered without another sheet read.
+                        return ResponseEntity.status(404).body("No scores for pool " + poolName);
+                    }
+                    return scoresResponse(scores.getNfc());
+                }
                 try {
-                    List<List<Object>> scores = googleSheetsService.readSheet(spreadsheetId, poolName, "A6:D15");
+                    List<List<Object>> scores = sheetsGateway.readSheet(spreadsheetId, poolName, "A6:D15");
                     logger.debug("[getNfcScores] Retrieved NFC scores: rows={}", scores == null ? 0 : scores.size());
                     return ResponseEntity.ok(scores);
+                } catch (SheetsUnavailableException e) {
+                    throw e;
                 } catch (Exception e) {
                     logger.error("[getNfcScores] Exception occurred: ", e);
                     return ResponseEntity.status(500).body("Failed to fetch NFC scores: " + e.getMessage());
@@ -35,10 +50,20 @@ public class GoogleSheetsController {
                 @PathVariable String poolName
         ) {
             logger.debug("[getAfcScores] spreadsheetId={}, poolName={}", spreadsheetId, poolName);
+            if (OwnersSheetSync.SPREADSHEET_ID.equals(spreadsheetId)) {
+                ScoreboardSnapshot.PoolScores scores = scoreboardCache.getScores(poolName);
+                if (scores == null) {
+                    // Unknown pool, or no tab as of the latest snapshot: answered without another sheet read.
+                    return ResponseEntity.status(404).body("No scores for pool " + poolName);
+                }
+                return scoresResponse(scores.getAfc());
+            }
             try {
-                List<List<Object>> scores = googleSheetsService.readSheet(spreadsheetId, poolName, "F1:O4");
+                List<List<Object>> scores = sheetsGateway.readSheet(spreadsheetId, poolName, "F1:O4");
                 logger.debug("[getAfcScores] Retrieved AFC scores: rows={}", scores == null ? 0 : scores.size());
                 return ResponseEntity.ok(scores);
+            } catch (SheetsUnavailableException e) {
+                throw e;
             } catch (Exception e) {
                 logger.error("[getAfcScores] Exception occurred: ", e);
                 return ResponseEntity.status(500).body("Failed to fetch AFC scores: " + e.getMessage());
@@ -46,9 +71,27 @@ public class GoogleSheetsController {
         }
     private static final Logger logger = LoggerFactory.getLogger(GoogleSheetsController.class);
     @Autowired
-    private GoogleSheetsService googleSheetsService;
+    private SheetsGateway sheetsGateway;
+
+    @Autowired
+    private GridSheetWriteBehind gridSheetWriteBehind;
+
+    @Autowired
+    private ScoreboardCache scoreboardCache;
+
+    // Scores served from the in-memory snapshot; the version and refresh time say how fresh they are.
+    private ResponseEntity<?> scoresResponse(List<List<Object>> scores) {
+        ScoreboardSnapshot snapshot = scoreboardCache.getSnapshot();
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .header("X-Scoreboard-Version", String.valueOf(snapshot.getVersion()));
+        if (snapshot.getRefreshedAt() != null) {
+            response.lastModified(snapshot.getRefreshedAt());
+        }
+        return response.body(scores);
+    }
 
     // POST /api/sheets/{spreadsheetId}/{poolName}/cell
+    // Buffered: the cell is written with the sheet's next batched flush, not during the request.
     @PostMapping("/{spreadsheetId}/{poolName}/cell")
     public ResponseEntity<?> updatePoolCell(
             @PathVariable String spreadsheetId,
@@ -59,12 +102,10 @@ public class GoogleSheetsController {
     ) {
         logger.info("[updatePoolCell] spreadsheetId={}, poolName={}, row={}, col={}", spreadsheetId, poolName, row, col);
         try {
-            googleSheetsService.updateCell(spreadsheetId, poolName, row, col, value);
-            logger.info("[updatePoolCell] Cell updated successfully");
-            return ResponseEntity.ok("Cell updated successfully");
-        } catch (Exception e) {
-            logger.error("[updatePoolCell] Exception occurred: ", e);
-            return ResponseEntity.status(500).body("Failed to update cell: " + e.getMessage());
+            gridSheetWriteBehind.enqueue(spreadsheetId, poolName, row, col, value);
+            return ResponseEntity.accepted().body("Cell update queued");
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
         }
     }
 
@@ -82,9 +123,11 @@ public class GoogleSheetsController {
                 logger.warn("[updatePoolGrid] Invalid grid size: {}x{}", grid == null ? 0 : grid.size(), (grid != null && !grid.isEmpty()) ? grid.get(0).size() : 0);
                 return ResponseEntity.badRequest().body("Grid must be 10x10");
             }
-            googleSheetsService.updateSheet(spreadsheetId, poolName, "F6:O15", grid);
+            sheetsGateway.updateSheet(spreadsheetId, poolName, "F6:O15", grid);
             logger.info("[updatePoolGrid] Grid updated successfully");
             return ResponseEntity.ok("Grid updated successfully");
+        } catch (SheetsUnavailableException e) {
+            throw e;
         } catch (Exception e) {
             logger.error("[updatePoolGrid] Exception occurred: ", e);
             return ResponseEntity.status(500).body("Failed to update grid: " + e.getMessage());
@@ -1,6 +1,12 @@
 package com.superbowl.squares.controller;
 
+import com.superbowl.squares.dto.BatchClaimRequest;
+import com.superbowl.squares.dto.BatchClaimResponse;
 import com.superbowl.squares.dto.ClaimSquareRequest;
+import com.superbowl.squares.dto.GridChangesResponse;
+import com.superbowl.squares.dto.GridSnapshotResponse;
+import com.superbowl.squares.grid.GridEventBroadcaster;
+import com.superbowl.squares.grid.GridSnapshot;
 import com.superbowl.squares.model.Square;
 import com.superbowl.squares.service.SquareService;
 import jakarta.validation.Valid;
@@ -8,8 +14,13 @@ import jakarta.validation.Valid;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.HashMap;
 import java.util.List;
@@ -24,6 +35,9 @@ public class SquareController {
     @Autowired
     private SquareService squareService;
 
+    @Autowired
+    private GridEventBroadcaster gridEventBroadcaster;
+
 
     @GetMapping("/pool/{poolId}")
     public ResponseEntity<List<Square>> getSquaresByPool(@PathVariable Long poolId) {
@@ -33,12 +47,77 @@ public class SquareController {
         return ResponseEntity.ok(squares);
     }
 
+    // Compact, versioned grid. Clients revalidate with If-None-Match and get a bodiless 304
+    // until the pool changes.
+    @GetMapping("/pool/{poolId}/snapshot")
+    public ResponseEntity<GridSnapshotResponse> getPoolSnapshot(@PathVariable Long poolId, WebRequest webRequest) {
+        GridSnapshot snapshot = squareService.getGridSnapshot(poolId);
+        if (snapshot.getSquareCount() == 0) {
+            return ResponseEntity.notFound().build();
+        }
+
+        String etag = "\"" + poolId + "-" + snapshot.getVersion() + "\"";
+        if (webRequest.checkNotModified(etag)) {
+            logger.debug("[getPoolSnapshot] poolId={} not modified at version {}", poolId, snapshot.getVersion());
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(CacheControl.noCache()).build();
+        }
+
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(CacheControl.noCache())
+                .body(squareService.toSnapshotResponse(snapshot));
+    }
+
+    // Catch-up after a reconnect: only the changes after `since`, or a full snapshot if they have
+    // already dropped out of the pool's journal.
+    @GetMapping("/pool/{poolId}/changes")
+    public ResponseEntity<GridChangesResponse> getPoolChanges(@PathVariable Long poolId, @RequestParam long since) {
+        if (squareService.getGridSnapshot(poolId).getSquareCount() == 0) {
+            return ResponseEntity.notFound().build();
+        }
+        GridChangesResponse changes = squareService.getChangesSince(poolId, since);
+        logger.debug("[getPoolChanges] poolId={}, since={}, version={}, fullSnapshot={}",
+                poolId, since, changes.getVersion(), changes.getSnapshot() != null);
+        return ResponseEntity.ok().cacheControl(CacheControl.noStore()).body(changes);
+    }
+
+    // Live claim/unclaim/lock deltas for one pool as Server-Sent Events.
+    @GetMapping(value = "/pool/{poolId}/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamPool(@PathVariable Long poolId) {
+        GridSnapshot snapshot = squareService.getGridSnapshot(poolId);
+        if (snapshot.getSquareCount() == 0) {
+            return ResponseEntity.notFound().build();
+        }
+
+        SseEmitter emitter = gridEventBroadcaster.subscribe(poolId, snapshot.getVersion());
+        if (emitter == null) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache())
+                .header("X-Accel-Buffering", "no")
+                .body(emitter);
+    }
+
     @PostMapping("/claim")
     public ResponseEntity<Square> claimSquare(@Valid @RequestBody ClaimSquareRequest request) {
         Square square = squareService.claimSquare(request);
         return ResponseEntity.ok(square);
     }
 
+    // Claims several squares for one profile at once. With allOrNothing (the default) any taken
+    // square rolls the whole batch back and the response is a 409 listing the conflicts.
+    @PostMapping("/claim/batch")
+    public ResponseEntity<BatchClaimResponse> claimSquares(@Valid @RequestBody BatchClaimRequest request) {
+        BatchClaimResponse response = squareService.claimSquares(request);
+        logger.debug("[claimSquares] poolId={}, claimed={}, conflicts={}, rolledBack={}", request.getPoolId(),
+                response.getClaimed().size(), response.getConflicts().size(), response.isRolledBack());
+        if (response.isRolledBack()) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(response);
+        }
+        return ResponseEntity.ok(response);
+    }
+
     @DeleteMapping("/pool/{poolId}/{rowPosition}/{colPosition}")
     public ResponseEntity<Square> unclaimSquare(
             @PathVariable Long poolId,
@@ -6,12 +6,15 @@ import com.superbowl.squares.dto.ChangePasswordRequest;
 import com.superbowl.squares.dto.PaymentInfoRequest;
 import com.superbowl.squares.dto.ProfileRequest;
 import com.superbowl.squares.dto.UpdateEmailRequest;
+import com.superbowl.squares.exception.TooManyRequestsException;
 import com.superbowl.squares.model.PaymentInfo;
 import com.superbowl.squares.model.Profile;
 import com.superbowl.squares.model.User;
+import com.superbowl.squares.security.AuthThrottle;
 import com.superbowl.squares.service.AuthService;
 import com.superbowl.squares.service.UserAccountService;
 import com.superbowl.squares.view.View;
+import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
@@ -29,6 +32,9 @@ public class UserController {
     @Autowired
     private UserAccountService userAccountService;
 
+    @Autowired
+    private AuthThrottle authThrottle;
+
     @GetMapping("/me")
     @JsonView(View.Detail.class)
     public ResponseEntity<User> getMe(Authentication authentication) {
@@ -37,20 +43,28 @@ public class UserController {
     }
 
     @PutMapping("/email")
-    public ResponseEntity<AuthResponse> updateEmail(Authentication authentication, @RequestBody UpdateEmailRequest request) {
+    public ResponseEntity<AuthResponse> updateEmail(Authentication authentication, @RequestBody UpdateEmailRequest request,
+                                                    HttpServletRequest httpRequest) {
+        authThrottle.check(httpRequest.getRemoteAddr(), authentication.getName());
         try {
             User user = authService.getUserFromAuthentication(authentication);
             return ResponseEntity.ok(userAccountService.updateEmail(user, request));
+        } catch (TooManyRequestsException e) {
+            throw e;
         } catch (Exception e) {
             return ResponseEntity.badRequest().build();
         }
     }
 
     @PutMapping("/password")
-    public ResponseEntity<AuthResponse> changePassword(Authentication authentication, @RequestBody ChangePasswordRequest request) {
+    public ResponseEntity<AuthResponse> changePassword(Authentication authentication, @RequestBody ChangePasswordRequest request,
+                                                       HttpServletRequest httpRequest) {
+        authThrottle.check(httpRequest.getRemoteAddr(), authentication.getName());
         try {
             User user = authService.getUserFromAuthentication(authentication);
             return ResponseEntity.ok(userAccountService.changePassword(user, request));
+        } catch (TooManyRequestsException e) {
+            throw e;
         } catch (Exception e) {
             return ResponseEntity.badRequest().build();
         }
@@ -0,0 +1,45 @@
+package com.superbowl.squares.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+public class BatchClaimRequest {
+
+    @NotNull(message = "Pool ID is required")
+    private Long poolId;
+
+    @NotNull(message = "Profile ID is required")
+    private Long profileId;
+
+    @NotEmpty(message = "At least one square is required")
+    @Size(max = 100, message = "A pool only has 100 squares")
+    private List<@Valid SquarePosition> squares;
+
+    // true: claim every square or none of them; false: claim what is free and report the rest.
+    private boolean allOrNothing = true;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class SquarePosition {
+        @NotNull(message = "Row position is required")
+        @Min(value = 0, message = "Row position must be between 0 and 9")
+        @Max(value = 9, message = "Row position must be between 0 and 9")
+        private Integer rowPosition;
+
+        @NotNull(message = "Column position is required")
+        @Min(value = 0, message = "Column position must be between 0 and 9")
+        @Max(value = 9, message = "Column position must be between 0 and 9")
+        private Integer colPosition;
+    }
+}
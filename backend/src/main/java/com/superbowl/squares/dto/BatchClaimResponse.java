@@ -0,0 +1,17 @@
+package com.superbowl.squares.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class BatchClaimResponse {
+    private Long poolId;
+    private Long profileId;
+    private List<BatchClaimRequest.SquarePosition> claimed;
+    private List<BatchClaimRequest.SquarePosition> conflicts;
+    // Set when allOrNothing was requested and at least one square was taken, so nothing was claimed.
+    private boolean rolledBack;
+}
@@ -0,0 +1,16 @@
+package com.superbowl.squares.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class BulkCreatePoolsRequest {
+
+    @NotEmpty(message = "At least one pool is required")
+    @Size(max = 50, message = "At most 50 pools can be created at once")
+    private List<@Valid CreatePoolRequest> pools;
+}
@@ -0,0 +1,17 @@
+package com.superbowl.squares.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class ClonePoolRequest {
+
+    // One new pool per name, each with the source pool's settings and an empty grid.
+    @NotEmpty(message = "At least one pool name is required")
+    @Size(max = 50, message = "At most 50 pools can be created at once")
+    private List<@NotBlank(message = "Pool name is required") String> poolNames;
+}
@@ -0,0 +1,20 @@
+package com.superbowl.squares.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.superbowl.squares.grid.GridDelta;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+// Either `deltas` (the changes after the requested version) or, when that version is no longer
+// in the journal, a full `snapshot`. `version` is the pool version the client is at afterwards.
+@Data
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class GridChangesResponse {
+    private Long poolId;
+    private long version;
+    private List<GridDelta> deltas;
+    private GridSnapshotResponse snapshot;
+}
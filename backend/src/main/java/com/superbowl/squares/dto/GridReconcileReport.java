@@ -0,0 +1,20 @@
+package com.superbowl.squares.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+@Data
+@AllArgsConstructor
+public class GridReconcileReport {
+    private LocalDateTime ranAt;
+    private int poolsChecked;
+    // Cells whose sheet value differed from the database and were rewritten.
+    private int cellsDrifted;
+    // Drifted cell count per pool name (pools without drift are left out).
+    private Map<String, Integer> driftByPool;
+    // Active pools that have no tab on the spreadsheet.
+    private int poolsWithoutSheet;
+}
@@ -0,0 +1,24 @@
+package com.superbowl.squares.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+// Compact grid payload: each profile appears once in `profiles`, and `cells` holds 100 entries
+// (row * 10 + col) that index into that list, or -1 when the square is available.
+@Data
+@AllArgsConstructor
+public class GridSnapshotResponse {
+    private Long poolId;
+    private long version;
+    private List<ProfileEntry> profiles;
+    private int[] cells;
+
+    @Data
+    @AllArgsConstructor
+    public static class ProfileEntry {
+        private Long id;
+        private String name;
+    }
+}
@@ -0,0 +1,14 @@
+package com.superbowl.squares.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class OwnersRebuildReport {
+    private int owners;
+    // Rows past the last owner that held stale data and were blanked.
+    private int staleRowsCleared;
+    private int sheetWrites;
+    private long durationMs;
+}
@@ -0,0 +1,19 @@
+package com.superbowl.squares.dto;
+
+import com.superbowl.squares.model.GameScore;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class ScoreUpdateResponse {
+    private GameScore score;
+    private int winnersWritten;
+    // Active pools whose sheet has no digits for this score (no tab, or the quarter's row/column not
+    // filled in). They got no winner; fill in the digits and save the score again.
+    private List<String> skippedPools;
+    // False when the sheet couldn't be read during the save and the last cached digits were used.
+    private boolean digitsFresh;
+}
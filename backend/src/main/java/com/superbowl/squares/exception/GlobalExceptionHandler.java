@@ -1,7 +1,9 @@
 
 package com.superbowl.squares.exception;
 
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
@@ -21,6 +23,42 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(body, HttpStatus.BAD_REQUEST);
     }
 
+    @ExceptionHandler(SquareAlreadyClaimedException.class)
+    public ResponseEntity<Object> handleSquareAlreadyClaimed(SquareAlreadyClaimedException ex, WebRequest request) {
+        Map<String, Object> body = new HashMap<>();
+        body.put("error", "SquareAlreadyClaimed");
+        body.put("message", ex.getMessage() != null ? ex.getMessage() : "Square is already claimed");
+        return new ResponseEntity<>(body, HttpStatus.CONFLICT);
+    }
+
+    @ExceptionHandler(TooManyRequestsException.class)
+    public ResponseEntity<Object> handleTooManyRequests(TooManyRequestsException ex, WebRequest request) {
+        Map<String, Object> body = new HashMap<>();
+        body.put("error", ex instanceof PoolBusyException ? "PoolBusy" : "TooManyRequests");
+        body.put("message", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(body);
+    }
+
+    @ExceptionHandler(SheetsUnavailableException.class)
+    public ResponseEntity<Object> handleSheetsUnavailable(SheetsUnavailableException ex, WebRequest request) {
+        Map<String, Object> body = new HashMap<>();
+        body.put("error", "SheetsUnavailable");
+        body.put("message", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(body);
+    }
+
+    @ExceptionHandler(ObjectOptimisticLockingFailureException.class)
+    public ResponseEntity<Object> handleOptimisticLock(ObjectOptimisticLockingFailureException ex, WebRequest request) {
+        Map<String, Object> body = new HashMap<>();
+        body.put("error", "ConcurrentModification");
+        body.put("message", "The square was changed by someone else. Refresh and try again.");
+        return new ResponseEntity<>(body, HttpStatus.CONFLICT);
+    }
+
     @ExceptionHandler(Exception.class)
     public ResponseEntity<Object> handleAllExceptions(Exception ex, WebRequest request) {
         ex.printStackTrace();
@@ -0,0 +1,7 @@
+package com.superbowl.squares.exception;
+
+public class PoolBusyException extends TooManyRequestsException {
+    public PoolBusyException(String message, long retryAfterSeconds) {
+        super(message, retryAfterSeconds);
+    }
+}
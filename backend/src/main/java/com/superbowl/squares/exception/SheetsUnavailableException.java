@@ -0,0 +1,21 @@
+package com.superbowl.squares.exception;
+
+// Google Sheets can't be called right now (circuit open, local quota used up, or retries exhausted).
+// Answered with 503 and a Retry-After header by GlobalExceptionHandler.
+public class SheetsUnavailableException extends RuntimeException {
+    private final long retryAfterSeconds;
+
+    public SheetsUnavailableException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public SheetsUnavailableException(String message, long retryAfterSeconds, Throwable cause) {
+        super(message, cause);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
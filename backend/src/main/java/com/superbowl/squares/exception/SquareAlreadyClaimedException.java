@@ -0,0 +1,7 @@
+package com.superbowl.squares.exception;
+
+public class SquareAlreadyClaimedException extends RuntimeException {
+    public SquareAlreadyClaimedException(String message) {
+        super(message);
+    }
+}
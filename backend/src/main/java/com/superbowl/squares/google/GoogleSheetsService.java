@@ -1,11 +1,11 @@
 package com.superbowl.squares.google;
 
-import com.google.api.client.googleapis.javanet.GoogleNetHttpTransport;
-import com.google.api.client.http.javanet.NetHttpTransport;
+import com.google.api.client.http.HttpTransport;
 import com.google.api.client.json.JsonFactory;
 import com.google.api.client.json.jackson2.JacksonFactory;
 import com.google.auth.oauth2.GoogleCredentials;
 import com.google.auth.http.HttpCredentialsAdapter;
+import com.google.auth.http.HttpTransportFactory;
 import com.google.api.services.sheets.v4.Sheets;
 import com.google.api.services.sheets.v4.SheetsScopes;
 import com.google.api.services.sheets.v4.model.*;
@@ -14,40 +14,101 @@ import java.security.GeneralSecurityException;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
 
 @Service
-public class GoogleSheetsService {
+@ConditionalOnProperty(name = "sheets.gateway", havingValue = "google", matchIfMissing = true)
+public class GoogleSheetsService implements SheetsGateway {
 
     private static final String APPLICATION_NAME = "SuperBowlSquares";
     private static final JsonFactory JSON_FACTORY = JacksonFactory.getDefaultInstance();
     private static final List<String> SCOPES = Collections.singletonList(SheetsScopes.SPREADSHEETS);
 
+    // Quota, retries and circuit breaker for every API call.
+    @Autowired
+    private SheetsApiGuard sheetsApiGuard;
+
+    // Pooled keep-alive transport, timeouts and HTTP metrics.
+    @Autowired
+    private SheetsHttpTransport sheetsHttpTransport;
+
     // Cache the Sheets client (building it requires I/O + crypto + transport setup).
+    // Built by warmUp() in the background once the application is ready, so neither boot nor the
+    // first sheet call pays for it; a call that arrives first builds it itself (or waits for warmUp).
     private volatile Sheets sheetsService;
+    private GoogleCredentials credentials;
+
+    public enum ClientState { NOT_STARTED, WARMING_UP, READY, FAILED }
+
+    private volatile ClientState clientState = ClientState.NOT_STARTED;
+    private volatile String clientError;
+    private volatile long warmupMillis = -1;
 
     // Cache sheetId lookups to avoid an extra API call for each update.
     // Key format: "<spreadsheetId>|<sheetName>" -> sheetId
     private final ConcurrentMap<String, Integer> sheetIdCache = new ConcurrentHashMap<>();
 
-    // Reuse HTTP transport (expensive to create; safe to reuse).
-    private final NetHttpTransport httpTransport;
+    // Transport, credentials and an access token are set up off the startup path; the first real
+    // call then goes straight to the API. Failures are only logged here and reported by
+    // SheetsClientHealthIndicator.
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        Thread warmup = new Thread(() -> {
+            long start = System.nanoTime();
+            if (clientState == ClientState.NOT_STARTED) {
+                clientState = ClientState.WARMING_UP;
+            }
+            GoogleCredentials creds;
+            try {
+                getSheetsService();
+                synchronized (this) {
+                    creds = credentials;
+                }
+            } catch (Exception e) {
+                logger.warn("Google Sheets client setup failed, will retry on first use: {}", e.getMessage());
+                return;
+            }
+            try {
+                creds.refreshIfExpired();
+            } catch (IOException e) {
+                // The client is usable; the token will be fetched again by the first call.
+                clientError = "Access token fetch failed: " + e.getMessage();
+                logger.warn("Google Sheets access token prefetch failed: {}", e.getMessage());
+            }
+            clientState = ClientState.READY;
+            warmupMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            logger.info("Google Sheets client ready in {} ms", warmupMillis);
+        }, "sheets-client-warmup");
+        warmup.setDaemon(true);
+        warmup.start();
+    }
+
+    public ClientState getClientState() {
+        return clientState;
+    }
 
-    public GoogleSheetsService() {
-        try {
-            this.httpTransport = GoogleNetHttpTransport.newTrustedTransport();
-        } catch (GeneralSecurityException | IOException e) {
-            throw new IllegalStateException("Failed to initialize Google HTTP transport", e);
-        }
+    public String getClientError() {
+        return clientError;
+    }
+
+    public long getWarmupMillis() {
+        return warmupMillis;
     }
 
         // Appends a new owner row to the Owners sheet: [email, password, profiles..., payment method, identifier]
-        public void appendOwnerRow(String spreadsheetId, String sheetName, String email, String password, List<String> profileNames, String paymentMethod, String identifier) throws Exception {
+        @Override
+        public int appendOwnerRow(String spreadsheetId, String sheetName, String email, String password, List<String> profileNames, String paymentMethod, String identifier) throws Exception {
             Sheets service = getSheetsService();
             // Prepare row: A=email, B=password, C:L=profiles (up to 10), M=payment method, N=identifier
             List<Object> row = new ArrayList<>();
@@ -65,13 +126,21 @@ public class GoogleSheetsService {
             List<List<Object>> values = java.util.Collections.singletonList(row);
             // Find next available row (append)
             ValueRange body = new ValueRange().setValues(values);
-            service.spreadsheets().values().append(spreadsheetId, sheetName + "!A:N", body)
-                .setValueInputOption("RAW").setInsertDataOption("INSERT_ROWS").execute();
+            AppendValuesResponse response = sheetsApiGuard.call("values.append", service.spreadsheets().values().append(spreadsheetId, sheetName + "!A:N", body)
+                .setValueInputOption("RAW").setInsertDataOption("INSERT_ROWS")::execute);
             logger.debug("Appended owner row to sheet {}", sheetName);
+            // Updated range looks like "Owners!A57:N57"; return the 1-based row, or -1 if it can't be read.
+            String updatedRange = response.getUpdates() != null ? response.getUpdates().getUpdatedRange() : null;
+            if (updatedRange == null) {
+                return -1;
+            }
+            java.util.regex.Matcher m = java.util.regex.Pattern.compile("![A-Z]+(\\d+)").matcher(updatedRange);
+            return m.find() ? Integer.parseInt(m.group(1)) : -1;
         }
     private static final Logger logger = LoggerFactory.getLogger(GoogleSheetsService.class);
 
     // Update a single cell using row/col (0,0 = F6)
+    @Override
     public void updateCell(String spreadsheetId, String sheetName, int row, int col, String value) throws Exception {
         logger.debug("Updating single cell: spreadsheetId={}, sheetName={}, row={}, col={}", spreadsheetId, sheetName, row, col);
         Sheets service = getSheetsService();
@@ -80,6 +149,45 @@ public class GoogleSheetsService {
         Integer sheetId = getSheetId(service, spreadsheetId, sheetName);
         if (sheetId == null) throw new IllegalArgumentException("Sheet name not found: " + sheetName);
 
+        com.google.api.services.sheets.v4.model.BatchUpdateSpreadsheetRequest batchRequest = new com.google.api.services.sheets.v4.model.BatchUpdateSpreadsheetRequest()
+            .setRequests(Collections.singletonList(cellRequest(sheetId, row, col, value)));
+        sheetsApiGuard.call("batchUpdate", service.spreadsheets().batchUpdate(spreadsheetId, batchRequest)::execute);
+        logger.debug("Single cell batchUpdate request sent to Google Sheets API (formatting preserved).");
+    }
+
+    // Writes many grid cells of one sheet in a single batchUpdate. Keys are cell indexes (row * 10 + col,
+    // 0 = F6); an empty value clears the cell.
+    @Override
+    public void updateCells(String spreadsheetId, String sheetName, Map<Integer, String> cells) throws Exception {
+        updateGridCells(spreadsheetId, Collections.singletonMap(sheetName, cells));
+    }
+
+    // updateCells for several sheets of one spreadsheet, still in a single batchUpdate.
+    @Override
+    public void updateGridCells(String spreadsheetId, Map<String, Map<Integer, String>> cellsBySheet) throws Exception {
+        Sheets service = getSheetsService();
+        List<com.google.api.services.sheets.v4.model.Request> requests = new ArrayList<>();
+        for (Map.Entry<String, Map<Integer, String>> sheet : cellsBySheet.entrySet()) {
+            if (sheet.getValue().isEmpty()) {
+                continue;
+            }
+            Integer sheetId = getSheetId(service, spreadsheetId, sheet.getKey());
+            if (sheetId == null) throw new IllegalArgumentException("Sheet name not found: " + sheet.getKey());
+            for (Map.Entry<Integer, String> cell : sheet.getValue().entrySet()) {
+                requests.add(cellRequest(sheetId, cell.getKey() / 10, cell.getKey() % 10, cell.getValue()));
+            }
+        }
+        if (requests.isEmpty()) {
+            return;
+        }
+        logger.debug("Updating {} grid cells: spreadsheetId={}, sheets={}", requests.size(), spreadsheetId, cellsBySheet.keySet());
+        com.google.api.services.sheets.v4.model.BatchUpdateSpreadsheetRequest batchRequest = new com.google.api.services.sheets.v4.model.BatchUpdateSpreadsheetRequest()
+            .setRequests(requests);
+        sheetsApiGuard.call("batchUpdate", service.spreadsheets().batchUpdate(spreadsheetId, batchRequest)::execute);
+    }
+
+    // Request that sets (or, for an empty value, clears) one grid cell without touching its formatting.
+    private static com.google.api.services.sheets.v4.model.Request cellRequest(Integer sheetId, int row, int col, String value) {
         int baseCol = 6; // F
         int baseRow = 6; // 6
         int a1Col = baseCol + col;
@@ -94,28 +202,18 @@ public class GoogleSheetsService {
 
         if (value == null || value.isEmpty()) {
             // Explicitly clear the cell
-            com.google.api.services.sheets.v4.model.Request clearRequest = new com.google.api.services.sheets.v4.model.Request()
-            .setUpdateCells(new com.google.api.services.sheets.v4.model.UpdateCellsRequest()
-                .setRange(gridRange)
-                .setFields("userEnteredValue"));
-            com.google.api.services.sheets.v4.model.BatchUpdateSpreadsheetRequest batchRequest = new com.google.api.services.sheets.v4.model.BatchUpdateSpreadsheetRequest()
-            .setRequests(Collections.singletonList(clearRequest));
-            service.spreadsheets().batchUpdate(spreadsheetId, batchRequest).execute();
-            logger.debug("Cell cleared in Google Sheets API.");
-        } else {
-            com.google.api.services.sheets.v4.model.CellData cellData = new com.google.api.services.sheets.v4.model.CellData()
+            return new com.google.api.services.sheets.v4.model.Request()
+                .setUpdateCells(new com.google.api.services.sheets.v4.model.UpdateCellsRequest()
+                    .setRange(gridRange)
+                    .setFields("userEnteredValue"));
+        }
+        com.google.api.services.sheets.v4.model.CellData cellData = new com.google.api.services.sheets.v4.model.CellData()
             .setUserEnteredValue(new com.google.api.services.sheets.v4.model.ExtendedValue().setStringValue(value));
-            com.google.api.services.sheets.v4.model.RepeatCellRequest repeatCellRequest = new com.google.api.services.sheets.v4.model.RepeatCellRequest()
+        com.google.api.services.sheets.v4.model.RepeatCellRequest repeatCellRequest = new com.google.api.services.sheets.v4.model.RepeatCellRequest()
             .setRange(gridRange)
             .setCell(cellData)
             .setFields("userEnteredValue");
-            com.google.api.services.sheets.v4.model.BatchUpdateSpreadsheetRequest batchRequest = new com.google.api.services.sheets.v4.model.BatchUpdateSpreadsheetRequest()
-            .setRequests(Collections.singletonList(
-                new com.google.api.services.sheets.v4.model.Request().setRepeatCell(repeatCellRequest)
-            ));
-            service.spreadsheets().batchUpdate(spreadsheetId, batchRequest).execute();
-            logger.debug("Single cell batchUpdate request sent to Google Sheets API (formatting preserved).");
-        }
+        return new com.google.api.services.sheets.v4.model.Request().setRepeatCell(repeatCellRequest);
     }
 
     // Helper to get sheetId from sheet name
@@ -128,7 +226,7 @@ public class GoogleSheetsService {
 
         Sheets.Spreadsheets.Get request = service.spreadsheets().get(spreadsheetId);
         request.setFields("sheets.properties");
-        Spreadsheet ss = request.execute();
+        Spreadsheet ss = sheetsApiGuard.call("get", request::execute);
         for (Sheet s : ss.getSheets()) {
             if (sheetName.equals(s.getProperties().getTitle())) {
                 Integer sheetId = s.getProperties().getSheetId();
@@ -172,48 +270,97 @@ public class GoogleSheetsService {
                 return local;
             }
 
-            GoogleCredentials credentials;
-            String jsonEnv = System.getenv("GOOGLE_APPLICATION_CREDENTIALS_JSON");
-            if (jsonEnv != null && !jsonEnv.isBlank()) {
-                try (java.io.InputStream is = new java.io.ByteArrayInputStream(jsonEnv.getBytes(java.nio.charset.StandardCharsets.UTF_8))) {
-                    credentials = GoogleCredentials.fromStream(is).createScoped(SCOPES);
-                }
-            } else {
-                // Local dev fallback
-                String credentialsPath = "backend/credentials/service-account.json";
-                try (java.io.InputStream is = new java.io.FileInputStream(credentialsPath)) {
-                    credentials = GoogleCredentials.fromStream(is).createScoped(SCOPES);
+            try {
+                HttpTransport httpTransport = sheetsHttpTransport.get();
+                HttpTransportFactory tokenTransport = () -> httpTransport;
+                String jsonEnv = System.getenv("GOOGLE_APPLICATION_CREDENTIALS_JSON");
+                if (jsonEnv != null && !jsonEnv.isBlank()) {
+                    try (java.io.InputStream is = new java.io.ByteArrayInputStream(jsonEnv.getBytes(java.nio.charset.StandardCharsets.UTF_8))) {
+                        credentials = GoogleCredentials.fromStream(is, tokenTransport).createScoped(SCOPES);
+                    }
+                } else {
+                    // Local dev fallback
+                    String credentialsPath = "backend/credentials/service-account.json";
+                    try (java.io.InputStream is = new java.io.FileInputStream(credentialsPath)) {
+                        credentials = GoogleCredentials.fromStream(is, tokenTransport).createScoped(SCOPES);
+                    }
                 }
-            }
 
-            sheetsService = new Sheets.Builder(httpTransport, JSON_FACTORY, new HttpCredentialsAdapter(credentials))
-                    .setApplicationName(APPLICATION_NAME)
-                    .build();
+                sheetsService = new Sheets.Builder(httpTransport, JSON_FACTORY,
+                        sheetsHttpTransport.initializer(new HttpCredentialsAdapter(credentials)))
+                        .setApplicationName(APPLICATION_NAME)
+                        .build();
+            } catch (IOException | GeneralSecurityException | RuntimeException e) {
+                clientState = ClientState.FAILED;
+                clientError = e.getMessage();
+                throw e;
+            }
+            clientState = ClientState.READY;
+            clientError = null;
             return sheetsService;
         }
     }
 
     // Example: Read values from a sheet/tab by name
+    @Override
     public List<List<Object>> readSheet(String spreadsheetId, String sheetName, String range) throws Exception {
         Sheets service = getSheetsService();
         String fullRange = sheetName + "!" + range;
-        ValueRange response = service.spreadsheets().values()
-                .get(spreadsheetId, fullRange)
-                .execute();
+        ValueRange response = sheetsApiGuard.call("values.get", service.spreadsheets().values()
+                .get(spreadsheetId, fullRange)::execute);
         List<List<Object>> values = response.getValues();
         return values != null ? values : java.util.Collections.emptyList();
     }
 
     // Example: Update values in a sheet/tab by name
+        @Override
         public void updateSheet(String spreadsheetId, String sheetName, String range, List<List<Object>> values) throws Exception {
             logger.debug("Updating Google Sheet: spreadsheetId={}, sheetName={}, range={}", spreadsheetId, sheetName, range);
                 Sheets service = getSheetsService();
                 String fullRange = sheetName + "!" + range;
                 ValueRange body = new ValueRange().setValues(values);
-                service.spreadsheets().values()
+                sheetsApiGuard.call("values.update", service.spreadsheets().values()
                                 .update(spreadsheetId, fullRange, body)
-                                .setValueInputOption("RAW")
-                                .execute();
+                                .setValueInputOption("RAW")::execute);
             logger.debug("Update request sent to Google Sheets API.");
         }
+
+    // Writes several ranges (each "<sheet>!<A1 range>") in one values.batchUpdate call.
+    @Override
+    public void updateRanges(String spreadsheetId, List<ValueRange> data) throws Exception {
+        Sheets service = getSheetsService();
+        BatchUpdateValuesRequest body = new BatchUpdateValuesRequest()
+                .setValueInputOption("RAW")
+                .setData(data);
+        sheetsApiGuard.call("values.batchUpdate", service.spreadsheets().values().batchUpdate(spreadsheetId, body)::execute);
+    }
+
+    // Reads several ranges in one values.batchGet call; results come back in request order.
+    @Override
+    public List<ValueRange> batchGet(String spreadsheetId, List<String> ranges) throws Exception {
+        Sheets service = getSheetsService();
+        BatchGetValuesResponse response = sheetsApiGuard.call("values.batchGet", service.spreadsheets().values()
+                .batchGet(spreadsheetId)
+                .setRanges(ranges)::execute);
+        List<ValueRange> valueRanges = response.getValueRanges();
+        return valueRanges != null ? valueRanges : Collections.emptyList();
+    }
+
+    // Titles of the spreadsheet's tabs (refreshes the sheetId cache on the way).
+    @Override
+    public List<String> getSheetTitles(String spreadsheetId) throws Exception {
+        Sheets service = getSheetsService();
+        Sheets.Spreadsheets.Get request = service.spreadsheets().get(spreadsheetId);
+        request.setFields("sheets.properties");
+        Spreadsheet ss = sheetsApiGuard.call("get", request::execute);
+        List<String> titles = new ArrayList<>();
+        for (Sheet s : ss.getSheets()) {
+            String title = s.getProperties().getTitle();
+            titles.add(title);
+            if (s.getProperties().getSheetId() != null) {
+                sheetIdCache.put(spreadsheetId + "|" + title, s.getProperties().getSheetId());
+            }
+        }
+        return titles;
+    }
 }
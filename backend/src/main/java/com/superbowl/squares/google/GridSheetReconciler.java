@@ -0,0 +1,162 @@
+package com.superbowl.squares.google;
+
+import com.google.api.services.sheets.v4.model.ValueRange;
+import com.superbowl.squares.dto.GridReconcileReport;
+import com.superbowl.squares.grid.GridReadModel;
+import com.superbowl.squares.grid.GridSnapshot;
+import com.superbowl.squares.model.Pool;
+import com.superbowl.squares.repository.PoolRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+// Brings every active pool's grid on the spreadsheet (F6:O15 of its tab) back in line with the
+// database: one batchGet reads all grids, they are diffed against the in-memory grid, and only the
+// cells that differ are written, in one batchUpdate. Runs on a schedule and from the admin API.
+@Component
+public class GridSheetReconciler {
+
+    private static final Logger logger = LoggerFactory.getLogger(GridSheetReconciler.class);
+
+    @Autowired
+    private SheetsGateway sheetsGateway;
+
+    @Autowired
+    private GridSheetWriteBehind gridSheetWriteBehind;
+
+    @Autowired
+    private GridReadModel gridReadModel;
+
+    @Autowired
+    private PoolRepository poolRepository;
+
+    private final Timer reconcileTimer;
+    private final Counter drifted;
+
+    public GridSheetReconciler(MeterRegistry meterRegistry) {
+        this.reconcileTimer = Timer.builder("sheets.grid.reconcile")
+                .description("Time to compare every active pool's sheet grid with the database")
+                .register(meterRegistry);
+        this.drifted = Counter.builder("sheets.grid.drift")
+                .description("Sheet grid cells found out of line with the database and rewritten")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${sheets.grid.reconcile-ms:900000}", initialDelayString = "${sheets.grid.reconcile-initial-delay-ms:60000}")
+    public void scheduledReconcile() {
+        try {
+            GridReconcileReport report = reconcile();
+            if (report.getCellsDrifted() > 0) {
+                logger.info("Grid reconcile rewrote {} drifted cells: {}", report.getCellsDrifted(), report.getDriftByPool());
+            }
+        } catch (Exception e) {
+            logger.warn("Grid reconcile failed: {}", e.getMessage());
+        }
+    }
+
+    public synchronized GridReconcileReport reconcile() throws Exception {
+        long start = System.nanoTime();
+        try {
+            return doReconcile();
+        } finally {
+            reconcileTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private GridReconcileReport doReconcile() throws Exception {
+        // Buffered writes first, so they are not counted (and rewritten) as drift.
+        gridSheetWriteBehind.flush();
+
+        Set<String> tabs = new HashSet<>(sheetsGateway.getSheetTitles(OwnersSheetSync.SPREADSHEET_ID));
+        List<Pool> pools = new ArrayList<>();
+        int withoutSheet = 0;
+        for (Pool pool : poolRepository.findByIsActiveTrue()) {
+            if (tabs.contains(pool.getPoolName())) {
+                pools.add(pool);
+            } else {
+                withoutSheet++;
+            }
+        }
+        if (pools.isEmpty()) {
+            return new GridReconcileReport(LocalDateTime.now(), 0, 0, Map.of(), withoutSheet);
+        }
+
+        // Take the database side before reading the sheet; a pool that changes in between is skipped
+        // below and left to the write-behind buffer.
+        Map<Long, GridSnapshot> snapshots = new HashMap<>();
+        List<String> ranges = new ArrayList<>(pools.size());
+        for (Pool pool : pools) {
+            snapshots.put(pool.getId(), gridReadModel.getSnapshot(pool.getId()));
+            ranges.add("'" + pool.getPoolName().replace("'", "''") + "'!F6:O15");
+        }
+        List<ValueRange> sheetGrids = sheetsGateway.batchGet(OwnersSheetSync.SPREADSHEET_ID, ranges);
+
+        Map<String, Map<Integer, String>> writes = new LinkedHashMap<>();
+        Map<String, Integer> driftByPool = new LinkedHashMap<>();
+        for (int i = 0; i < pools.size(); i++) {
+            Pool pool = pools.get(i);
+            GridSnapshot snapshot = snapshots.get(pool.getId());
+            if (gridReadModel.getSnapshot(pool.getId()).getVersion() != snapshot.getVersion()) {
+                continue;
+            }
+            List<List<Object>> sheetGrid = i < sheetGrids.size() ? sheetGrids.get(i).getValues() : null;
+            Map<Integer, String> cells = diff(snapshot, sheetGrid);
+            if (!cells.isEmpty()) {
+                writes.put(pool.getPoolName(), cells);
+                driftByPool.put(pool.getPoolName(), cells.size());
+            }
+        }
+
+        int cellsDrifted = driftByPool.values().stream().mapToInt(Integer::intValue).sum();
+        if (cellsDrifted > 0) {
+            sheetsGateway.updateGridCells(OwnersSheetSync.SPREADSHEET_ID, writes);
+            drifted.increment(cellsDrifted);
+        }
+        return new GridReconcileReport(LocalDateTime.now(), pools.size(), cellsDrifted, driftByPool, withoutSheet);
+    }
+
+    // Cells (row * 10 + col -> value, "" to clear) where the sheet does not show the square's owner.
+    private static Map<Integer, String> diff(GridSnapshot snapshot, List<List<Object>> sheetGrid) {
+        Map<Integer, String> cells = new LinkedHashMap<>();
+        for (int row = 0; row < GridSnapshot.SIZE; row++) {
+            for (int col = 0; col < GridSnapshot.SIZE; col++) {
+                GridSnapshot.Cell cell = snapshot.getCell(row, col);
+                if (cell == null) {
+                    continue;
+                }
+                String expected = cell.isClaimed() && cell.getProfileName() != null ? cell.getProfileName() : "";
+                if (!expected.equals(sheetValue(sheetGrid, row, col))) {
+                    cells.put(row * GridSnapshot.SIZE + col, expected);
+                }
+            }
+        }
+        return cells;
+    }
+
+    // The API leaves out trailing empty rows and cells, so anything missing is blank.
+    private static String sheetValue(List<List<Object>> sheetGrid, int row, int col) {
+        if (sheetGrid == null || row >= sheetGrid.size()) {
+            return "";
+        }
+        List<Object> cells = sheetGrid.get(row);
+        if (cells == null || col >= cells.size() || cells.get(col) == null) {
+            return "";
+        }
+        return cells.get(col).toString();
+    }
+}
@@ -0,0 +1,159 @@
+package com.superbowl.squares.google;
+
+import com.superbowl.squares.repository.PoolRepository;
+import com.superbowl.squares.util.Transactions;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Write-behind buffer for pool grid cells on Google Sheets.
+// Cell changes are collected per (spreadsheet, sheet) and flushed every sheets.grid.flush-ms as one
+// batchUpdate per sheet; a cell written several times in a window only sends its latest value.
+// A failed flush puts its cells back (unless a newer value arrived meanwhile) for the next round.
+@Component
+public class GridSheetWriteBehind {
+
+    private static final Logger logger = LoggerFactory.getLogger(GridSheetWriteBehind.class);
+
+    @Autowired
+    private SheetsGateway sheetsGateway;
+
+    @Autowired
+    private PoolRepository poolRepository;
+
+    // Pending cells per "<spreadsheetId>|<sheetName>": cell index (row * 10 + col) -> value, "" to clear.
+    // Only touched through ConcurrentHashMap.compute/remove, so a flush that removes a sheet's map owns it.
+    private final ConcurrentMap<String, Map<Integer, String>> pending = new ConcurrentHashMap<>();
+    // Pool id -> sheet name; dropped when a pool is renamed or deleted.
+    private final ConcurrentMap<Long, String> poolNames = new ConcurrentHashMap<>();
+    private final AtomicInteger pendingCells = new AtomicInteger();
+    private final Timer flushTimer;
+    private final DistributionSummary cellsPerFlush;
+    private final Counter coalesced;
+    private final Counter failures;
+
+    public GridSheetWriteBehind(MeterRegistry meterRegistry) {
+        Gauge.builder("sheets.grid.pending", pendingCells, AtomicInteger::get)
+                .description("Grid cells waiting to be written to Google Sheets")
+                .register(meterRegistry);
+        this.flushTimer = Timer.builder("sheets.grid.flush")
+                .description("Time to write one sheet's buffered grid cells (one Sheets API call)")
+                .register(meterRegistry);
+        this.cellsPerFlush = DistributionSummary.builder("sheets.grid.flush.cells")
+                .description("Grid cells written per Sheets API call")
+                .register(meterRegistry);
+        this.coalesced = Counter.builder("sheets.grid.coalesced")
+                .description("Grid cell writes replaced by a newer value before they were flushed")
+                .register(meterRegistry);
+        this.failures = Counter.builder("sheets.grid.flush.failures")
+                .description("Failed grid flushes (their cells are retried on the next flush)")
+                .register(meterRegistry);
+    }
+
+    // A pool's cell changed in the database; queued once the surrounding transaction commits.
+    public void cellChanged(Long poolId, int row, int col, String value) {
+        String sheetName = poolName(poolId);
+        if (sheetName == null) {
+            return;
+        }
+        Transactions.afterCommit(() -> enqueue(OwnersSheetSync.SPREADSHEET_ID, sheetName, row, col, value));
+    }
+
+    public void enqueue(String spreadsheetId, String sheetName, int row, int col, String value) {
+        if (row < 0 || row >= 10 || col < 0 || col >= 10) {
+            throw new IllegalArgumentException("Cell out of range: " + row + "," + col);
+        }
+        int index = row * 10 + col;
+        String cellValue = value != null ? value : "";
+        pending.compute(spreadsheetId + "|" + sheetName, (key, cells) -> {
+            if (cells == null) {
+                cells = new HashMap<>();
+            }
+            if (cells.put(index, cellValue) != null) {
+                coalesced.increment();
+            } else {
+                pendingCells.incrementAndGet();
+            }
+            return cells;
+        });
+    }
+
+    public void poolChanged(Long poolId) {
+        Transactions.afterCommit(() -> poolNames.remove(poolId));
+    }
+
+    // Last chance for whatever is still buffered when the application stops.
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    @Scheduled(fixedDelayString = "${sheets.grid.flush-ms:1000}")
+    public synchronized void flush() {
+        for (String key : pending.keySet()) {
+            Map<Integer, String> cells = pending.remove(key);
+            if (cells == null) {
+                continue;
+            }
+            int separator = key.indexOf('|');
+            String spreadsheetId = key.substring(0, separator);
+            String sheetName = key.substring(separator + 1);
+            pendingCells.addAndGet(-cells.size());
+            try {
+                flushTimer.recordCallable(() -> {
+                    sheetsGateway.updateCells(spreadsheetId, sheetName, cells);
+                    return null;
+                });
+                cellsPerFlush.record(cells.size());
+            } catch (IllegalArgumentException e) {
+                // Sheet does not exist (pool without a tab); retrying will not help.
+                logger.warn("Dropping {} grid cells for sheet {}: {}", cells.size(), sheetName, e.getMessage());
+            } catch (Exception e) {
+                failures.increment();
+                logger.warn("Grid flush for sheet {} failed, will retry: {}", sheetName, e.getMessage());
+                requeue(key, cells);
+            }
+        }
+    }
+
+    private void requeue(String key, Map<Integer, String> cells) {
+        pending.compute(key, (k, current) -> {
+            if (current == null) {
+                current = new HashMap<>();
+            }
+            for (Map.Entry<Integer, String> cell : cells.entrySet()) {
+                if (current.putIfAbsent(cell.getKey(), cell.getValue()) == null) {
+                    pendingCells.incrementAndGet();
+                }
+            }
+            return current;
+        });
+    }
+
+    private String poolName(Long poolId) {
+        String cached = poolNames.get(poolId);
+        if (cached != null) {
+            return cached;
+        }
+        return poolRepository.findPoolNameById(poolId)
+                .map(name -> {
+                    poolNames.put(poolId, name);
+                    return name;
+                })
+                .orElse(null);
+    }
+}
@@ -0,0 +1,351 @@
+package com.superbowl.squares.google;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.api.client.http.HttpHeaders;
+import com.google.api.client.http.HttpResponseException;
+import com.google.api.client.util.Data;
+import com.google.api.services.sheets.v4.model.ValueRange;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// In-process stand-in for Google Sheets (sheets.gateway=local), for running and load-testing sheet
+// sync without credentials. Sheets are plain string grids kept in memory and, if sheets.local.file is
+// set, saved to that JSON file after every write. Range writes and appends create a missing sheet; grid
+// writes to a missing pool tab throw IllegalArgumentException, as the SheetsGateway contract says,
+// unless sheets.local.create-missing-sheets is set. Reads of a missing sheet fail with 400, as Google's do.
+// Calls still go through SheetsApiGuard, and sheets.local.latency-ms / latency-jitter-ms and
+// failure-rate (answered with failure-status) make them behave like a slow or flaky Google.
+@Service
+@ConditionalOnProperty(name = "sheets.gateway", havingValue = "local")
+public class LocalSheetsGateway implements SheetsGateway {
+
+    private static final Logger logger = LoggerFactory.getLogger(LocalSheetsGateway.class);
+    private static final Pattern CELL = Pattern.compile("([A-Z]*)(\\d*)");
+
+    @Value("${sheets.local.file:}")
+    private String file;
+
+    @Value("${sheets.local.latency-ms:0}")
+    private long latencyMs;
+
+    @Value("${sheets.local.latency-jitter-ms:0}")
+    private long latencyJitterMs;
+
+    @Value("${sheets.local.failure-rate:0}")
+    private double failureRate;
+
+    @Value("${sheets.local.failure-status:503}")
+    private int failureStatus;
+
+    // Off by default, so a grid write to a tab that doesn't exist fails the way it does against Google.
+    @Value("${sheets.local.create-missing-sheets:false}")
+    private boolean createMissingSheets;
+
+    @Autowired
+    private SheetsApiGuard sheetsApiGuard;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    // "<spreadsheetId>|<sheetName>" -> rows of cells (0-based, ragged; missing cells are blank).
+    private final Map<String, List<List<String>>> sheets = new LinkedHashMap<>();
+
+    @PostConstruct
+    public void load() throws IOException {
+        synchronized (this) {
+            if (!file.isBlank() && Files.exists(Path.of(file))) {
+                sheets.putAll(objectMapper.readValue(Path.of(file).toFile(),
+                        new TypeReference<LinkedHashMap<String, List<List<String>>>>() {}));
+                logger.info("Loaded {} local sheets from {}", sheets.size(), file);
+            } else {
+                logger.info("Using in-memory sheets{}", file.isBlank() ? "" : " (will save to " + file + ")");
+            }
+            // The real spreadsheet always has an Owners tab, so reads of it never fail on a fresh start.
+            sheet(OwnersSheetSync.SPREADSHEET_ID, OwnersSheetSync.OWNERS_SHEET);
+        }
+    }
+
+    @Override
+    public List<List<Object>> readSheet(String spreadsheetId, String sheetName, String range) throws Exception {
+        return sheetsApiGuard.call("values.get", () -> {
+            simulate();
+            synchronized (this) {
+                return read(spreadsheetId, sheetName + "!" + range);
+            }
+        });
+    }
+
+    @Override
+    public void updateSheet(String spreadsheetId, String sheetName, String range, List<List<Object>> values) throws Exception {
+        sheetsApiGuard.call("values.update", () -> {
+            simulate();
+            synchronized (this) {
+                write(spreadsheetId, parse(sheetName + "!" + range), values);
+                save();
+            }
+            return null;
+        });
+    }
+
+    @Override
+    public void updateCell(String spreadsheetId, String sheetName, int row, int col, String value) throws Exception {
+        updateCells(spreadsheetId, sheetName, Map.of(row * 10 + col, value != null ? value : ""));
+    }
+
+    @Override
+    public void updateCells(String spreadsheetId, String sheetName, Map<Integer, String> cells) throws Exception {
+        updateGridCells(spreadsheetId, Map.of(sheetName, cells));
+    }
+
+    @Override
+    public void updateGridCells(String spreadsheetId, Map<String, Map<Integer, String>> cellsBySheet) throws Exception {
+        sheetsApiGuard.call("batchUpdate", () -> {
+            simulate();
+            synchronized (this) {
+                // Checked up front: like the real batchUpdate, a missing tab fails the whole call.
+                for (Map.Entry<String, Map<Integer, String>> sheet : cellsBySheet.entrySet()) {
+                    if (!sheet.getValue().isEmpty() && !createMissingSheets
+                            && !sheets.containsKey(spreadsheetId + "|" + sheet.getKey())) {
+                        throw new IllegalArgumentException("Sheet name not found: " + sheet.getKey());
+                    }
+                }
+                for (Map.Entry<String, Map<Integer, String>> sheet : cellsBySheet.entrySet()) {
+                    if (sheet.getValue().isEmpty()) {
+                        continue;
+                    }
+                    List<List<String>> rows = sheet(spreadsheetId, sheet.getKey());
+                    for (Map.Entry<Integer, String> cell : sheet.getValue().entrySet()) {
+                        // Grid (0,0) is F6: row index 5, column index 5.
+                        set(rows, 5 + cell.getKey() / 10, 5 + cell.getKey() % 10, cell.getValue());
+                    }
+                }
+                save();
+            }
+            return null;
+        });
+    }
+
+    @Override
+    public void updateRanges(String spreadsheetId, List<ValueRange> data) throws Exception {
+        sheetsApiGuard.call("values.batchUpdate", () -> {
+            simulate();
+            synchronized (this) {
+                for (ValueRange range : data) {
+                    write(spreadsheetId, parse(range.getRange()), range.getValues());
+                }
+                save();
+            }
+            return null;
+        });
+    }
+
+    @Override
+    public List<ValueRange> batchGet(String spreadsheetId, List<String> ranges) throws Exception {
+        return sheetsApiGuard.call("values.batchGet", () -> {
+            simulate();
+            synchronized (this) {
+                List<ValueRange> result = new ArrayList<>(ranges.size());
+                for (String range : ranges) {
+                    result.add(new ValueRange().setRange(range).setValues(read(spreadsheetId, range)));
+                }
+                return result;
+            }
+        });
+    }
+
+    @Override
+    public List<String> getSheetTitles(String spreadsheetId) throws Exception {
+        return sheetsApiGuard.call("get", () -> {
+            simulate();
+            synchronized (this) {
+                List<String> titles = new ArrayList<>();
+                String prefix = spreadsheetId + "|";
+                for (String key : sheets.keySet()) {
+                    if (key.startsWith(prefix)) {
+                        titles.add(key.substring(prefix.length()));
+                    }
+                }
+                return titles;
+            }
+        });
+    }
+
+    @Override
+    public int appendOwnerRow(String spreadsheetId, String sheetName, String email, String password,
+                              List<String> profileNames, String paymentMethod, String identifier) throws Exception {
+        return sheetsApiGuard.call("values.append", () -> {
+            simulate();
+            synchronized (this) {
+                List<List<String>> rows = sheet(spreadsheetId, sheetName);
+                if (rows.isEmpty()) {
+                    rows.add(new ArrayList<>()); // header row
+                }
+                List<String> row = new ArrayList<>();
+                row.add(email);
+                row.add(password);
+                for (int i = 0; i < 10; i++) {
+                    row.add(profileNames != null && i < profileNames.size() ? profileNames.get(i) : "");
+                }
+                row.add(paymentMethod != null ? paymentMethod : "");
+                row.add(identifier != null ? identifier : "");
+                rows.add(row);
+                save();
+                return rows.size();
+            }
+        });
+    }
+
+    // Latency and failure injection, applied before the call touches any data.
+    private void simulate() throws IOException {
+        long delay = latencyMs + (latencyJitterMs > 0 ? ThreadLocalRandom.current().nextLong(latencyJitterMs + 1) : 0);
+        if (delay > 0) {
+            try {
+                Thread.sleep(delay);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted during simulated latency", e);
+            }
+        }
+        if (failureRate > 0 && ThreadLocalRandom.current().nextDouble() < failureRate) {
+            throw new HttpResponseException.Builder(failureStatus, "Injected failure", new HttpHeaders()).build();
+        }
+    }
+
+    // Like the API, a range on a sheet that doesn't exist is a 400, not an empty result.
+    private List<List<Object>> read(String spreadsheetId, String range) throws IOException {
+        A1 a1 = parse(range);
+        List<List<String>> rows = sheets.get(spreadsheetId + "|" + a1.sheet);
+        if (rows == null) {
+            throw badRequest("Unable to parse range: " + range);
+        }
+        List<List<Object>> values = new ArrayList<>();
+        int lastRow = Math.min(a1.endRow, rows.size() - 1);
+        for (int r = a1.startRow; r <= lastRow; r++) {
+            List<String> cells = rows.get(r);
+            List<Object> out = new ArrayList<>();
+            int lastCol = Math.min(a1.endCol, cells.size() - 1);
+            for (int c = a1.startCol; c <= lastCol; c++) {
+                out.add(cells.get(c) != null ? cells.get(c) : "");
+            }
+            // Like the API: no trailing blank cells, and no trailing blank rows.
+            while (!out.isEmpty() && out.get(out.size() - 1).toString().isEmpty()) {
+                out.remove(out.size() - 1);
+            }
+            values.add(out);
+        }
+        while (!values.isEmpty() && values.get(values.size() - 1).isEmpty()) {
+            values.remove(values.size() - 1);
+        }
+        return values;
+    }
+
+    private void write(String spreadsheetId, A1 a1, List<List<Object>> values) {
+        if (values == null) {
+            return;
+        }
+        List<List<String>> rows = sheet(spreadsheetId, a1.sheet);
+        for (int r = 0; r < values.size(); r++) {
+            List<Object> cells = values.get(r);
+            for (int c = 0; c < cells.size(); c++) {
+                Object value = cells.get(c);
+                // Like the API: Data.NULL_STRING (JSON null) leaves the cell as it is.
+                if (Data.isNull(value)) {
+                    continue;
+                }
+                set(rows, a1.startRow + r, a1.startCol + c, value != null ? value.toString() : "");
+            }
+        }
+    }
+
+    // Creates the sheet if it is missing; callers that must not create one check first.
+    private List<List<String>> sheet(String spreadsheetId, String sheetName) {
+        return sheets.computeIfAbsent(spreadsheetId + "|" + sheetName, k -> new ArrayList<>());
+    }
+
+    private static void set(List<List<String>> rows, int row, int col, String value) {
+        while (rows.size() <= row) {
+            rows.add(new ArrayList<>());
+        }
+        List<String> cells = rows.get(row);
+        while (cells.size() <= col) {
+            cells.add("");
+        }
+        cells.set(col, value != null ? value : "");
+    }
+
+    private void save() throws IOException {
+        if (file.isBlank()) {
+            return;
+        }
+        Path target = Path.of(file);
+        Path tmp = target.resolveSibling(target.getFileName() + ".tmp");
+        objectMapper.writeValue(tmp.toFile(), sheets);
+        Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static HttpResponseException badRequest(String message) {
+        return new HttpResponseException.Builder(400, message, new HttpHeaders()).build();
+    }
+
+    // "'Sheet'!A2:N", "Owners!F6", "Pool!A:N": 0-based, inclusive bounds; open ends run to the edge.
+    private static A1 parse(String range) throws IOException {
+        int bang = range.lastIndexOf('!');
+        if (bang < 0) {
+            throw badRequest("Range has no sheet name: " + range);
+        }
+        String sheet = range.substring(0, bang);
+        if (sheet.length() >= 2 && sheet.startsWith("'") && sheet.endsWith("'")) {
+            sheet = sheet.substring(1, sheet.length() - 1).replace("''", "'");
+        }
+        String[] ends = range.substring(bang + 1).split(":", 2);
+        int[] start = cell(ends[0], range);
+        int[] end = ends.length > 1 ? cell(ends[1], range) : start.clone();
+        A1 a1 = new A1();
+        a1.sheet = sheet;
+        a1.startRow = start[0] < 0 ? 0 : start[0];
+        a1.startCol = start[1] < 0 ? 0 : start[1];
+        a1.endRow = end[0] < 0 ? Integer.MAX_VALUE : end[0];
+        a1.endCol = end[1] < 0 ? Integer.MAX_VALUE : end[1];
+        return a1;
+    }
+
+    // {row, col}, 0-based, -1 where the reference leaves it out.
+    private static int[] cell(String ref, String range) throws IOException {
+        Matcher m = CELL.matcher(ref.trim().toUpperCase());
+        if (!m.matches() || (m.group(1).isEmpty() && m.group(2).isEmpty())) {
+            throw badRequest("Unable to parse range: " + range);
+        }
+        int col = -1;
+        for (char ch : m.group(1).toCharArray()) {
+            col = (col + 1) * 26 + (ch - 'A');
+        }
+        int row = m.group(2).isEmpty() ? -1 : Integer.parseInt(m.group(2)) - 1;
+        return new int[] { row, col };
+    }
+
+    private static final class A1 {
+        String sheet;
+        int startRow;
+        int startCol;
+        int endRow;
+        int endCol;
+    }
+}
@@ -0,0 +1,81 @@
+package com.superbowl.squares.google;
+
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Cipher;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Base64;
+
+// Encrypts the sheet password an outbox event carries, so sheets_outbox (and the binlog and backups)
+// never hold it in plain text. AES-256-GCM with a random IV per value, stored as "v1:" + base64(iv +
+// ciphertext). The key is sheets.outbox.password-key (base64, 32 bytes); if unset it is derived
+// from jwt.secret, so rotating either makes events still queued under the old key undecryptable.
+@Component
+public class OutboxPasswordCipher {
+
+    private static final String PREFIX = "v1:";
+    private static final int IV_BYTES = 12;
+    private static final int TAG_BITS = 128;
+
+    @Value("${sheets.outbox.password-key:}")
+    private String configuredKey;
+
+    @Value("${jwt.secret}")
+    private String jwtSecret;
+
+    private final SecureRandom random = new SecureRandom();
+    private SecretKey key;
+
+    @PostConstruct
+    public void init() throws GeneralSecurityException {
+        byte[] bytes;
+        if (configuredKey != null && !configuredKey.isBlank()) {
+            bytes = Base64.getDecoder().decode(configuredKey.trim());
+            if (bytes.length != 32) {
+                throw new IllegalStateException("sheets.outbox.password-key must be 32 bytes, base64-encoded");
+            }
+        } else {
+            bytes = MessageDigest.getInstance("SHA-256")
+                    .digest(("sheets-outbox-password|" + jwtSecret).getBytes(StandardCharsets.UTF_8));
+        }
+        key = new SecretKeySpec(bytes, "AES");
+    }
+
+    public String encrypt(String password) {
+        if (password == null) {
+            return null;
+        }
+        try {
+            byte[] iv = new byte[IV_BYTES];
+            random.nextBytes(iv);
+            Cipher cipher = Cipher.getInstance("AES/GCM/NoPadding");
+            cipher.init(Cipher.ENCRYPT_MODE, key, new GCMParameterSpec(TAG_BITS, iv));
+            byte[] sealed = cipher.doFinal(password.getBytes(StandardCharsets.UTF_8));
+            byte[] out = new byte[IV_BYTES + sealed.length];
+            System.arraycopy(iv, 0, out, 0, IV_BYTES);
+            System.arraycopy(sealed, 0, out, IV_BYTES, sealed.length);
+            return PREFIX + Base64.getEncoder().encodeToString(out);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Failed to encrypt outbox password", e);
+        }
+    }
+
+    // Values written before encryption (no prefix) are returned as they are.
+    public String decrypt(String stored) throws GeneralSecurityException {
+        if (stored == null || !stored.startsWith(PREFIX)) {
+            return stored;
+        }
+        byte[] in = Base64.getDecoder().decode(stored.substring(PREFIX.length()));
+        Cipher cipher = Cipher.getInstance("AES/GCM/NoPadding");
+        cipher.init(Cipher.DECRYPT_MODE, key, new GCMParameterSpec(TAG_BITS, in, 0, IV_BYTES));
+        return new String(cipher.doFinal(in, IV_BYTES, in.length - IV_BYTES), StandardCharsets.UTF_8);
+    }
+}
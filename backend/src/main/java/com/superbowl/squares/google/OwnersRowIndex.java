@@ -0,0 +1,84 @@
+package com.superbowl.squares.google;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+// Email -> sheet row (1-based) for the Owners sheet, so an owner update is a targeted write instead of
+// a download of the whole sheet. Loaded from column A on first use and kept current on append; callers
+// that find a row holding a different email (rows sorted or deleted by hand) reload it.
+@Component
+public class OwnersRowIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(OwnersRowIndex.class);
+
+    @Autowired
+    private SheetsGateway sheetsGateway;
+
+    private final Map<String, Integer> rows = new HashMap<>();
+    private boolean loaded;
+    private final Counter reloads;
+
+    public OwnersRowIndex(MeterRegistry meterRegistry) {
+        this.reloads = Counter.builder("sheets.owners.index.reloads")
+                .description("Full reads of the Owners sheet email column to rebuild the row index")
+                .register(meterRegistry);
+    }
+
+    // Row the email is filed under, or null if it has none.
+    public synchronized Integer find(String email) throws Exception {
+        if (!loaded) {
+            reload();
+        }
+        return rows.get(key(email));
+    }
+
+    public synchronized void reload() throws Exception {
+        List<List<Object>> emails = sheetsGateway.readSheet(
+                OwnersSheetSync.SPREADSHEET_ID, OwnersSheetSync.OWNERS_SHEET, "A2:A");
+        rows.clear();
+        for (int i = 0; i < emails.size(); i++) {
+            List<Object> row = emails.get(i);
+            if (!row.isEmpty() && row.get(0) != null && !row.get(0).toString().isBlank()) {
+                // Header is row 1, so A2 is row i + 2. The first row wins if an email appears twice.
+                rows.putIfAbsent(key(row.get(0).toString()), i + 2);
+            }
+        }
+        loaded = true;
+        reloads.increment();
+        logger.debug("Loaded Owners row index ({} rows)", rows.size());
+    }
+
+    // Records where an owner's row now lives; oldEmailOrNull is dropped when the email changed.
+    public synchronized void put(String email, String oldEmailOrNull, int row) {
+        if (oldEmailOrNull != null) {
+            rows.remove(key(oldEmailOrNull));
+        }
+        rows.put(key(email), row);
+    }
+
+    // Swaps in a complete index (email -> row) built by whoever just rewrote the sheet.
+    public synchronized void replaceAll(Map<String, Integer> emailRows) {
+        rows.clear();
+        emailRows.forEach((email, row) -> rows.putIfAbsent(key(email), row));
+        loaded = true;
+    }
+
+    // Forget everything; the next lookup reads column A again.
+    public synchronized void invalidate() {
+        rows.clear();
+        loaded = false;
+    }
+
+    private static String key(String email) {
+        return email.trim().toLowerCase(Locale.ROOT);
+    }
+}
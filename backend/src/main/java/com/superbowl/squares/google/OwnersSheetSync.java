@@ -0,0 +1,248 @@
+package com.superbowl.squares.google;
+
+import com.google.api.services.sheets.v4.model.ValueRange;
+import com.superbowl.squares.dto.OwnersRebuildReport;
+import com.superbowl.squares.model.PaymentInfo;
+import com.superbowl.squares.model.Profile;
+import com.superbowl.squares.model.User;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// Writes a user's row on the Owners sheet:
+// A=email, B=password, C:L=profiles (by profileNumber), M=payment method, N=identifier.
+@Component
+public class OwnersSheetSync {
+
+    private static final Logger logger = LoggerFactory.getLogger(OwnersSheetSync.class);
+
+    public static final String SPREADSHEET_ID = "1zXue8QE0GBV5GRWv7k5JSR67yRjMf3o7Cj9egY4Fguk";
+    public static final String OWNERS_SHEET = "Owners";
+
+    // One row per (user, profile); every user's primary payment method (else their oldest) joined in.
+    private static final String OWNER_ROWS_SQL =
+            "SELECT u.id AS user_id, u.email, p.full_name, p.profile_number, pay.payment_method, pay.account_identifier " +
+            "FROM users u " +
+            "LEFT JOIN profiles p ON p.user_id = u.id " +
+            "LEFT JOIN (SELECT user_id, payment_method, account_identifier, " +
+            "ROW_NUMBER() OVER (PARTITION BY user_id ORDER BY is_primary DESC, id) AS rn FROM payment_info) pay " +
+            "ON pay.user_id = u.id AND pay.rn = 1 " +
+            "ORDER BY u.id, p.profile_number, p.id";
+
+    @Autowired
+    private SheetsGateway sheetsGateway;
+
+    @Autowired
+    private OwnersRowIndex ownersRowIndex;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${sheets.owners.rebuild-chunk-rows:2000}")
+    private int rebuildChunkRows;
+
+    // Rewrites the row filed under oldEmailOrNull (or the user's current email), or appends one if
+    // the index has none. The password column is kept unless a new one is given.
+    public synchronized void upsertOwnerRow(User user, String oldEmailOrNull, String passwordOrNull) throws Exception {
+        String lookupEmail = oldEmailOrNull != null ? oldEmailOrNull : user.getEmail();
+
+        List<String> profileNames = profileSlots(user);
+        String paymentMethod = "";
+        String identifier = "";
+        PaymentInfo primary = primaryPaymentInfo(user);
+        if (primary != null) {
+            paymentMethod = primary.getPaymentMethod() != null ? primary.getPaymentMethod().toString() : "";
+            identifier = primary.getAccountIdentifier() != null ? primary.getAccountIdentifier() : "";
+        }
+        List<Object> rest = new ArrayList<>(profileNames);
+        rest.add(paymentMethod);
+        rest.add(identifier);
+
+        // An email the index doesn't know is a new owner: append without reading the sheet. A known row
+        // is confirmed by reading its one email cell before anything is written to it.
+        Integer row = ownersRowIndex.find(lookupEmail);
+        if (row != null) {
+            String held = emailAt(row);
+            if (!sameEmail(held, lookupEmail)) {
+                // The sheet was sorted or edited by hand; the reloaded index is read fresh from column A.
+                logger.info("Owners row {} holds {} instead of {}, reloading row index", row, held, lookupEmail);
+                ownersRowIndex.reload();
+                row = ownersRowIndex.find(lookupEmail);
+            }
+        }
+
+        if (row == null) {
+            int appended = sheetsGateway.appendOwnerRow(SPREADSHEET_ID, OWNERS_SHEET, user.getEmail(),
+                    passwordOrNull != null ? passwordOrNull : "", profileNames, paymentMethod, identifier);
+            if (appended > 0) {
+                ownersRowIndex.put(user.getEmail(), oldEmailOrNull, appended);
+            } else {
+                ownersRowIndex.invalidate();
+            }
+            return;
+        }
+
+        // One values.batchUpdate: the email only when it changed, the password only when a new one is given.
+        List<ValueRange> data = new ArrayList<>();
+        if (oldEmailOrNull != null && !sameEmail(oldEmailOrNull, user.getEmail())) {
+            data.add(rowRange("A", "A", row, Collections.singletonList(user.getEmail())));
+        }
+        if (passwordOrNull != null) {
+            data.add(rowRange("B", "B", row, Collections.singletonList(passwordOrNull)));
+        }
+        data.add(rowRange("C", "N", row, rest));
+        sheetsGateway.updateRanges(SPREADSHEET_ID, data);
+        if (oldEmailOrNull != null) {
+            ownersRowIndex.put(user.getEmail(), oldEmailOrNull, row);
+        }
+    }
+
+    // Replaces the whole Owners sheet with one row per user, built from a single streamed join (users,
+    // profiles and each user's primary payment method) and written in chunks of rebuild-chunk-rows.
+    // The database has no plain-text passwords, so column B is carried over from the current sheet.
+    public synchronized OwnersRebuildReport rebuild() throws Exception {
+        long start = System.nanoTime();
+        Map<String, Object> passwords = new HashMap<>();
+        List<List<Object>> current = sheetsGateway.readSheet(SPREADSHEET_ID, OWNERS_SHEET, "A2:B");
+        for (List<Object> row : current) {
+            if (!row.isEmpty() && row.get(0) != null) {
+                passwords.putIfAbsent(row.get(0).toString().trim().toLowerCase(Locale.ROOT), row.size() > 1 ? row.get(1) : "");
+            }
+        }
+
+        List<List<Object>> rows = new ArrayList<>();
+        jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(OWNER_ROWS_SQL, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            ps.setFetchSize(Integer.MIN_VALUE); // MySQL: stream rows instead of buffering the result
+            return ps;
+        }, new RowCallbackHandler() {
+            private long userId = -1;
+            private List<String> profileNames;
+
+            @Override
+            public void processRow(ResultSet rs) throws SQLException {
+                if (rs.getLong("user_id") != userId) {
+                    userId = rs.getLong("user_id");
+                    String email = rs.getString("email");
+                    profileNames = emptySlots();
+                    List<Object> row = new ArrayList<>(14);
+                    row.add(email);
+                    row.add(passwords.getOrDefault(email.trim().toLowerCase(Locale.ROOT), ""));
+                    row.addAll(profileNames);
+                    row.add(nullToEmpty(rs.getString("payment_method")));
+                    row.add(nullToEmpty(rs.getString("account_identifier")));
+                    rows.add(row);
+                }
+                String fullName = rs.getString("full_name");
+                if (fullName != null) {
+                    placeProfile(profileNames, fullName, rs.getObject("profile_number", Integer.class));
+                    List<Object> row = rows.get(rows.size() - 1);
+                    for (int i = 0; i < 10; i++) {
+                        row.set(2 + i, profileNames.get(i));
+                    }
+                }
+            }
+        });
+
+        // Rows below the new last row held owners that no longer exist; blank them.
+        int blanked = Math.max(0, current.size() - rows.size());
+        List<List<Object>> values = new ArrayList<>(rows);
+        for (int i = 0; i < blanked; i++) {
+            values.add(new ArrayList<>(Collections.nCopies(14, "")));
+        }
+
+        int calls = 0;
+        for (int from = 0; from < values.size(); from += rebuildChunkRows) {
+            int to = Math.min(values.size(), from + rebuildChunkRows);
+            sheetsGateway.updateSheet(SPREADSHEET_ID, OWNERS_SHEET, "A" + (from + 2) + ":N" + (to + 1), values.subList(from, to));
+            calls++;
+        }
+
+        Map<String, Integer> index = new HashMap<>();
+        for (int i = 0; i < rows.size(); i++) {
+            index.putIfAbsent(rows.get(i).get(0).toString(), i + 2);
+        }
+        ownersRowIndex.replaceAll(index);
+
+        long durationMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        logger.info("Rebuilt Owners sheet: {} owners, {} stale rows blanked, {} writes in {} ms", rows.size(), blanked, calls, durationMs);
+        return new OwnersRebuildReport(rows.size(), blanked, calls, durationMs);
+    }
+
+    private static String nullToEmpty(String value) {
+        return value != null ? value : "";
+    }
+
+    private String emailAt(int row) throws Exception {
+        List<List<Object>> cell = sheetsGateway.readSheet(SPREADSHEET_ID, OWNERS_SHEET, "A" + row);
+        Object value = !cell.isEmpty() && !cell.get(0).isEmpty() ? cell.get(0).get(0) : null;
+        return value != null ? value.toString() : "";
+    }
+
+    private static boolean sameEmail(String a, String b) {
+        return a.trim().equalsIgnoreCase(b.trim());
+    }
+
+    private static ValueRange rowRange(String fromCol, String toCol, int row, List<?> values) {
+        return new ValueRange()
+                .setRange(OWNERS_SHEET + "!" + fromCol + row + ":" + toCol + row)
+                .setValues(Collections.singletonList(new ArrayList<Object>(values)));
+    }
+
+    private static List<String> profileSlots(User user) {
+        List<String> profileNames = emptySlots();
+        if (user.getProfiles() != null) {
+            for (Profile p : user.getProfiles()) {
+                if (p == null) continue;
+                placeProfile(profileNames, p.getFullName(), p.getProfileNumber());
+            }
+        }
+        return profileNames;
+    }
+
+    private static List<String> emptySlots() {
+        List<String> profileNames = new ArrayList<>();
+        for (int i = 0; i < 10; i++) profileNames.add("");
+        return profileNames;
+    }
+
+    private static void placeProfile(List<String> profileNames, String fullName, Integer n) {
+        String name = fullName != null ? fullName : "";
+        if (n != null && n >= 1 && n <= 10) {
+            profileNames.set(n - 1, name);
+        } else {
+            // Fallback: place into first available slot
+            for (int i = 0; i < profileNames.size(); i++) {
+                if (profileNames.get(i).isEmpty()) {
+                    profileNames.set(i, name);
+                    break;
+                }
+            }
+        }
+    }
+
+    private static PaymentInfo primaryPaymentInfo(User user) {
+        if (user.getPaymentInfos() == null || user.getPaymentInfos().isEmpty()) {
+            return null;
+        }
+        return user.getPaymentInfos().stream()
+                .filter(p -> Boolean.TRUE.equals(p.getIsPrimary()))
+                .findFirst()
+                .orElse(user.getPaymentInfos().get(0));
+    }
+}
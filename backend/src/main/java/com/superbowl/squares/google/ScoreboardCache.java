@@ -0,0 +1,214 @@
+package com.superbowl.squares.google;
+
+import com.google.api.services.sheets.v4.model.ValueRange;
+import com.superbowl.squares.model.Pool;
+import com.superbowl.squares.repository.PoolRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+// Serves the AFC/NFC score ranges of every pool from memory.
+// A background refresh reads all pools' ranges in one values.batchGet and swaps in a new snapshot.
+// Only one refresh runs at a time (callers asking meanwhile share it), and a failed or slow refresh
+// leaves the previous snapshot in place, so readers get stale scores rather than waiting on Google.
+@Component
+public class ScoreboardCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(ScoreboardCache.class);
+
+    @Value("${sheets.scores.max-wait-ms:2000}")
+    private long maxWaitMs;
+
+    @Autowired
+    private SheetsGateway sheetsGateway;
+
+    @Autowired
+    private PoolRepository poolRepository;
+
+    private volatile ScoreboardSnapshot snapshot = ScoreboardSnapshot.EMPTY;
+    // Existing pool (no sheet tab yet) -> snapshot version it was missing from; cleared on each new snapshot.
+    private final ConcurrentMap<String, Long> missing = new ConcurrentHashMap<>();
+    private final AtomicReference<CompletableFuture<ScoreboardSnapshot>> inFlight = new AtomicReference<>();
+    private final ExecutorService refresher = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "scoreboard-refresh");
+        t.setDaemon(true);
+        return t;
+    });
+    private final Timer refreshTimer;
+    private final Counter failures;
+
+    public ScoreboardCache(MeterRegistry meterRegistry) {
+        this.refreshTimer = Timer.builder("sheets.scores.refresh")
+                .description("Time to read every pool's score ranges from Google Sheets")
+                .register(meterRegistry);
+        this.failures = Counter.builder("sheets.scores.refresh.failures")
+                .description("Score refreshes that failed (the previous snapshot keeps being served)")
+                .register(meterRegistry);
+        Gauge.builder("sheets.scores.age.seconds", this, ScoreboardCache::ageSeconds)
+                .description("Age of the score snapshot being served")
+                .register(meterRegistry);
+    }
+
+    public ScoreboardSnapshot getSnapshot() {
+        return snapshot;
+    }
+
+    // Scores for one pool, or null. Only waits (up to max-wait-ms) for a refresh when the pool is not
+    // in the snapshot yet but exists in the database, e.g. right after startup or for a pool created
+    // since the last refresh. A name still missing afterwards is not retried until the next snapshot,
+    // so requests for unknown or tab-less pools can't keep forcing full reads of every pool.
+    public ScoreboardSnapshot.PoolScores getScores(String poolName) {
+        ScoreboardSnapshot current = snapshot;
+        ScoreboardSnapshot.PoolScores scores = current.get(poolName);
+        if (scores != null) {
+            return scores;
+        }
+        Long missingAt = missing.get(poolName);
+        if (missingAt != null && missingAt == current.getVersion()) {
+            return null;
+        }
+        if (!poolRepository.existsByPoolName(poolName)) {
+            // Not remembered: only real pool names go in the negative cache, so it stays bounded.
+            return null;
+        }
+        try {
+            refresh().get(maxWaitMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            logger.debug("Score refresh for {} not available: {}", poolName, e.getMessage());
+        }
+        current = snapshot;
+        scores = current.get(poolName);
+        if (scores == null) {
+            missing.put(poolName, current.getVersion());
+        }
+        return scores;
+    }
+
+    // A snapshot read after this call started: waits out a refresh already running (it may have read
+    // the sheet before a recent edit) and then for a new one, up to waitMs in all. Throws if the sheet
+    // can't be read in time; the cached snapshot is then still available from getSnapshot().
+    public ScoreboardSnapshot freshSnapshot(long waitMs) throws Exception {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(waitMs);
+        CompletableFuture<ScoreboardSnapshot> running = inFlight.get();
+        if (running != null) {
+            try {
+                running.get(waitMs, TimeUnit.MILLISECONDS);
+            } catch (ExecutionException e) {
+                // Failed refresh; the next one below may still succeed.
+            }
+        }
+        long remainingNanos = Math.max(0, deadline - System.nanoTime());
+        return refresh().get(remainingNanos, TimeUnit.NANOSECONDS);
+    }
+
+    @Scheduled(fixedDelayString = "${sheets.scores.refresh-ms:15000}")
+    public void scheduledRefresh() {
+        refresh();
+    }
+
+    // Starts a refresh unless one is already running, and returns the running one.
+    public CompletableFuture<ScoreboardSnapshot> refresh() {
+        CompletableFuture<ScoreboardSnapshot> mine = new CompletableFuture<>();
+        CompletableFuture<ScoreboardSnapshot> running = inFlight.compareAndExchange(null, mine);
+        if (running != null) {
+            return running;
+        }
+        refresher.execute(() -> {
+            try {
+                ScoreboardSnapshot next = refreshTimer.recordCallable(this::load);
+                snapshot = next;
+                missing.clear();
+                inFlight.set(null);
+                mine.complete(next);
+            } catch (Exception e) {
+                failures.increment();
+                logger.warn("Score refresh failed, serving snapshot v{}: {}", snapshot.getVersion(), e.getMessage());
+                inFlight.set(null);
+                mine.completeExceptionally(e);
+            }
+        });
+        return mine;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        refresher.shutdown();
+    }
+
+    private ScoreboardSnapshot load() throws Exception {
+        List<String> poolNames = new ArrayList<>();
+        for (Pool pool : poolRepository.findAll()) {
+            poolNames.add(pool.getPoolName());
+        }
+        return new ScoreboardSnapshot(snapshot.getVersion() + 1, Instant.now(), Collections.unmodifiableMap(readPools(poolNames)));
+    }
+
+    // One call for the tab list and one values.batchGet. Pools without a tab are left out.
+    private Map<String, ScoreboardSnapshot.PoolScores> readPools(Collection<String> poolNames) throws Exception {
+        // A batchGet fails as a whole on a missing tab, so only ask for pools that have one.
+        Set<String> tabs = new HashSet<>(sheetsGateway.getSheetTitles(OwnersSheetSync.SPREADSHEET_ID));
+        List<String> names = new ArrayList<>();
+        for (String poolName : poolNames) {
+            if (tabs.contains(poolName)) {
+                names.add(poolName);
+            }
+        }
+
+        Map<String, ScoreboardSnapshot.PoolScores> pools = new HashMap<>();
+        if (!names.isEmpty()) {
+            List<String> ranges = new ArrayList<>(names.size() * 2);
+            for (String poolName : names) {
+                String sheet = "'" + poolName.replace("'", "''") + "'!";
+                ranges.add(sheet + "F1:O4");
+                ranges.add(sheet + "A6:D15");
+            }
+            List<ValueRange> values = sheetsGateway.batchGet(OwnersSheetSync.SPREADSHEET_ID, ranges);
+            for (int i = 0; i < names.size(); i++) {
+                pools.put(names.get(i), new ScoreboardSnapshot.PoolScores(
+                        valuesAt(values, 2 * i), valuesAt(values, 2 * i + 1)));
+            }
+        }
+        return pools;
+    }
+
+    private static List<List<Object>> valuesAt(List<ValueRange> values, int index) {
+        if (index >= values.size() || values.get(index).getValues() == null) {
+            return Collections.emptyList();
+        }
+        return Collections.unmodifiableList(values.get(index).getValues());
+    }
+
+    private double ageSeconds() {
+        Instant refreshedAt = snapshot.getRefreshedAt();
+        return refreshedAt != null ? Duration.between(refreshedAt, Instant.now()).getSeconds() : -1;
+    }
+}
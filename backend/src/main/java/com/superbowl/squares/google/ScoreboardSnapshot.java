@@ -0,0 +1,33 @@
+package com.superbowl.squares.google;
+
+import lombok.Value;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+// Immutable copy of every pool's score ranges as last read from the spreadsheet.
+// A refresh builds a new snapshot with a higher version; readers never see one half-built.
+@Value
+public class ScoreboardSnapshot {
+
+    public static final ScoreboardSnapshot EMPTY = new ScoreboardSnapshot(0L, null, Map.of());
+
+    long version;
+    // When the ranges were read; null for EMPTY.
+    Instant refreshedAt;
+    // Keyed by pool (sheet) name.
+    Map<String, PoolScores> pools;
+
+    public PoolScores get(String poolName) {
+        return pools.get(poolName);
+    }
+
+    @Value
+    public static class PoolScores {
+        // F1:O4 on the pool's sheet
+        List<List<Object>> afc;
+        // A6:D15 on the pool's sheet
+        List<List<Object>> nfc;
+    }
+}
@@ -0,0 +1,290 @@
+package com.superbowl.squares.google;
+
+import com.google.api.client.googleapis.json.GoogleJsonResponseException;
+import com.google.api.client.http.HttpResponseException;
+import com.superbowl.squares.exception.SheetsUnavailableException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// Every Google Sheets API call goes through here:
+// - a requests-per-minute token bucket (the project's Sheets quota, shared by all callers) and a cap
+//   on calls in flight; a caller waits at most max-wait-ms for either before giving up;
+// - retries of 429, 5xx and I/O errors with exponential backoff and full jitter, honouring Retry-After;
+// - a circuit breaker that opens after failure-threshold calls in a row fail that way, fails fast
+//   while open, and lets a single trial call through once open-ms has passed.
+// Anything that gives up throws SheetsUnavailableException (503 with Retry-After at the API).
+@Component
+public class SheetsApiGuard {
+
+    private static final Logger logger = LoggerFactory.getLogger(SheetsApiGuard.class);
+
+    public interface SheetsCall<T> {
+        T execute() throws IOException;
+    }
+
+    private enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final long maxWaitNanos;
+    private final int maxRetries;
+    private final long backoffBaseMs;
+    private final long backoffMaxMs;
+    private final int failureThreshold;
+    private final long openNanos;
+
+    // Token bucket; tokens go negative while callers hold reservations for future tokens.
+    private final double capacity;
+    private final double nanosPerToken;
+    private double tokens;
+    private long refilledAt = System.nanoTime();
+
+    private final Semaphore inFlight;
+
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private long openUntil;
+    private boolean trialInFlight;
+
+    private final MeterRegistry meterRegistry;
+    private final Counter retries;
+    private final Counter throttled;
+    private final Counter shortCircuited;
+
+    public SheetsApiGuard(MeterRegistry meterRegistry,
+                          @Value("${sheets.api.requests-per-minute:60}") int requestsPerMinute,
+                          @Value("${sheets.api.burst:10}") int burst,
+                          @Value("${sheets.api.max-concurrent:8}") int maxConcurrent,
+                          @Value("${sheets.api.max-wait-ms:2000}") long maxWaitMs,
+                          @Value("${sheets.api.max-retries:3}") int maxRetries,
+                          @Value("${sheets.api.backoff-base-ms:500}") long backoffBaseMs,
+                          @Value("${sheets.api.backoff-max-ms:8000}") long backoffMaxMs,
+                          @Value("${sheets.api.circuit.failure-threshold:5}") int failureThreshold,
+                          @Value("${sheets.api.circuit.open-ms:30000}") long openMs) {
+        this.meterRegistry = meterRegistry;
+        this.capacity = Math.max(1, burst);
+        this.tokens = capacity;
+        this.nanosPerToken = TimeUnit.MINUTES.toNanos(1) / (double) Math.max(1, requestsPerMinute);
+        this.inFlight = new Semaphore(Math.max(1, maxConcurrent));
+        this.maxWaitNanos = TimeUnit.MILLISECONDS.toNanos(maxWaitMs);
+        this.maxRetries = maxRetries;
+        this.backoffBaseMs = backoffBaseMs;
+        this.backoffMaxMs = backoffMaxMs;
+        this.failureThreshold = failureThreshold;
+        this.openNanos = TimeUnit.MILLISECONDS.toNanos(openMs);
+
+        this.retries = Counter.builder("sheets.api.retries")
+                .description("Google Sheets API attempts retried after a 429, 5xx or I/O error")
+                .register(meterRegistry);
+        this.throttled = Counter.builder("sheets.api.throttled")
+                .description("Google Sheets API calls refused locally because the quota or concurrency limit was reached")
+                .register(meterRegistry);
+        this.shortCircuited = Counter.builder("sheets.api.circuit.rejected")
+                .description("Google Sheets API calls failed fast while the circuit was open")
+                .register(meterRegistry);
+        Gauge.builder("sheets.api.circuit.state", this, SheetsApiGuard::stateValue)
+                .description("Circuit breaker state: 0 closed, 1 half-open, 2 open")
+                .register(meterRegistry);
+        Gauge.builder("sheets.api.in.flight", inFlight, s -> Math.max(1, maxConcurrent) - s.availablePermits())
+                .description("Google Sheets API calls currently running")
+                .register(meterRegistry);
+    }
+
+    public <T> T call(String operation, SheetsCall<T> call) throws IOException {
+        if (!allowCall()) {
+            shortCircuited.increment();
+            throw new SheetsUnavailableException("Google Sheets is unavailable, please try again later", retryAfterSeconds());
+        }
+
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "error";
+        try {
+            T result = attempt(call);
+            outcome = "success";
+            recordHealthy();
+            return result;
+        } catch (HttpResponseException e) {
+            if (isRetryable(e)) {
+                recordFailure();
+            } else {
+                // A 4xx (bad range, missing sheet) says nothing about Google's health.
+                outcome = "client_error";
+                recordHealthy();
+            }
+            throw e;
+        } catch (IOException e) {
+            recordFailure();
+            throw e;
+        } catch (SheetsUnavailableException e) {
+            outcome = "throttled";
+            releaseTrial();
+            throw e;
+        } catch (RuntimeException e) {
+            releaseTrial();
+            throw e;
+        } finally {
+            sample.stop(Timer.builder("sheets.api.calls")
+                    .description("Google Sheets API calls, including retries")
+                    .tag("operation", operation)
+                    .tag("outcome", outcome)
+                    .register(meterRegistry));
+        }
+    }
+
+    private <T> T attempt(SheetsCall<T> call) throws IOException {
+        for (int attempt = 0; ; attempt++) {
+            IOException failure;
+            acquire();
+            try {
+                return call.execute();
+            } catch (IOException e) {
+                failure = e;
+            } finally {
+                inFlight.release();
+            }
+            if (attempt >= maxRetries || !isRetryable(failure)) {
+                throw failure;
+            }
+            retries.increment();
+            long delayMs = backoffMs(attempt, failure);
+            logger.debug("Sheets API call failed ({}), retry {} in {} ms", failure.getMessage(), attempt + 1, delayMs);
+            sleep(delayMs);
+        }
+    }
+
+    // One quota token and one in-flight slot, waiting no longer than max-wait-ms in total.
+    private void acquire() {
+        long waitNanos = reserveToken();
+        if (waitNanos < 0) {
+            throttled.increment();
+            throw new SheetsUnavailableException("Google Sheets quota reached, please try again", retryAfterSeconds());
+        }
+        try {
+            if (waitNanos > 0) {
+                TimeUnit.NANOSECONDS.sleep(waitNanos);
+            }
+            if (!inFlight.tryAcquire(Math.max(0, maxWaitNanos - waitNanos), TimeUnit.NANOSECONDS)) {
+                throttled.increment();
+                throw new SheetsUnavailableException("Too many Google Sheets calls in progress, please try again", 1);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SheetsUnavailableException("Interrupted while waiting for Google Sheets", 1, e);
+        }
+    }
+
+    // Nanoseconds until the reserved token is available, or -1 if that is beyond max-wait-ms.
+    private synchronized long reserveToken() {
+        long now = System.nanoTime();
+        tokens = Math.min(capacity, tokens + (now - refilledAt) / nanosPerToken);
+        refilledAt = now;
+        long waitNanos = tokens >= 1 ? 0 : (long) ((1 - tokens) * nanosPerToken);
+        if (waitNanos > maxWaitNanos) {
+            return -1;
+        }
+        tokens -= 1;
+        return waitNanos;
+    }
+
+    private static boolean isRetryable(IOException e) {
+        if (e instanceof HttpResponseException response) {
+            int status = response.getStatusCode();
+            return status == 429 || status >= 500;
+        }
+        return true; // timeouts, resets
+    }
+
+    private long backoffMs(int attempt, IOException e) {
+        long ceiling = Math.min(backoffMaxMs, backoffBaseMs << Math.min(attempt, 20));
+        long delay = ThreadLocalRandom.current().nextLong(ceiling + 1);
+        if (e instanceof GoogleJsonResponseException response && response.getHeaders() != null) {
+            String retryAfter = response.getHeaders().getRetryAfter();
+            if (retryAfter != null) {
+                try {
+                    delay = Math.max(delay, Math.min(backoffMaxMs, TimeUnit.SECONDS.toMillis(Long.parseLong(retryAfter.trim()))));
+                } catch (NumberFormatException ignored) {
+                    // HTTP-date form; the jittered backoff will do
+                }
+            }
+        }
+        return delay;
+    }
+
+    private static void sleep(long delayMs) {
+        try {
+            Thread.sleep(delayMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SheetsUnavailableException("Interrupted while retrying a Google Sheets call", 1, e);
+        }
+    }
+
+    private synchronized boolean allowCall() {
+        if (state == State.OPEN) {
+            if (System.nanoTime() - openUntil < 0) {
+                return false;
+            }
+            state = State.HALF_OPEN;
+            trialInFlight = false;
+        }
+        if (state == State.HALF_OPEN) {
+            if (trialInFlight) {
+                return false;
+            }
+            trialInFlight = true;
+        }
+        return true;
+    }
+
+    private synchronized void recordHealthy() {
+        if (state != State.CLOSED) {
+            logger.info("Google Sheets circuit closed");
+        }
+        state = State.CLOSED;
+        consecutiveFailures = 0;
+        trialInFlight = false;
+    }
+
+    private synchronized void recordFailure() {
+        consecutiveFailures++;
+        if (state == State.HALF_OPEN || consecutiveFailures >= failureThreshold) {
+            if (state != State.OPEN) {
+                logger.warn("Google Sheets circuit opened after {} failed calls", consecutiveFailures);
+            }
+            state = State.OPEN;
+            openUntil = System.nanoTime() + openNanos;
+            trialInFlight = false;
+        }
+    }
+
+    // A half-open trial that ended without telling us anything lets the next caller try.
+    private synchronized void releaseTrial() {
+        if (state == State.HALF_OPEN) {
+            trialInFlight = false;
+        }
+    }
+
+    private synchronized long retryAfterSeconds() {
+        if (state == State.OPEN) {
+            return Math.max(1, TimeUnit.NANOSECONDS.toSeconds(openUntil - System.nanoTime()) + 1);
+        }
+        return Math.max(1, (long) Math.ceil(nanosPerToken / TimeUnit.SECONDS.toNanos(1)));
+    }
+
+    private synchronized double stateValue() {
+        return switch (state) {
+            case CLOSED -> 0;
+            case HALF_OPEN -> 1;
+            case OPEN -> 2;
+        };
+    }
+}
@@ -0,0 +1,35 @@
+package com.superbowl.squares.google;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+// "sheetsClient" in /actuator/health: UP once the Google client is built, UNKNOWN while the startup
+// warmup is still running (so it does not hold overall health down), DOWN if setup failed.
+@Component
+@ConditionalOnProperty(name = "sheets.gateway", havingValue = "google", matchIfMissing = true)
+public class SheetsClientHealthIndicator implements HealthIndicator {
+
+    @Autowired
+    private GoogleSheetsService googleSheetsService;
+
+    @Override
+    public Health health() {
+        GoogleSheetsService.ClientState state = googleSheetsService.getClientState();
+        Health.Builder health = switch (state) {
+            case READY -> Health.up();
+            case FAILED -> Health.down();
+            case NOT_STARTED, WARMING_UP -> Health.unknown();
+        };
+        health.withDetail("state", state.name());
+        if (googleSheetsService.getWarmupMillis() >= 0) {
+            health.withDetail("warmupMs", googleSheetsService.getWarmupMillis());
+        }
+        if (googleSheetsService.getClientError() != null) {
+            health.withDetail("error", googleSheetsService.getClientError());
+        }
+        return health.build();
+    }
+}
@@ -0,0 +1,37 @@
+package com.superbowl.squares.google;
+
+import com.google.api.services.sheets.v4.model.ValueRange;
+
+import java.util.List;
+import java.util.Map;
+
+// Everything the application does with spreadsheets. GoogleSheetsService talks to the real API;
+// LocalSheetsGateway (sheets.gateway=local) keeps sheets in memory or in a file, for running and
+// load-testing without Google credentials.
+// Grid cells are addressed as row/col from F6, or as cell index row * 10 + col.
+public interface SheetsGateway {
+
+    List<List<Object>> readSheet(String spreadsheetId, String sheetName, String range) throws Exception;
+
+    void updateSheet(String spreadsheetId, String sheetName, String range, List<List<Object>> values) throws Exception;
+
+    void updateCell(String spreadsheetId, String sheetName, int row, int col, String value) throws Exception;
+
+    // One sheet's grid cells in a single call; an empty value clears the cell.
+    void updateCells(String spreadsheetId, String sheetName, Map<Integer, String> cells) throws Exception;
+
+    // Grid cells of several sheets in a single call. Throws IllegalArgumentException for an unknown sheet.
+    void updateGridCells(String spreadsheetId, Map<String, Map<Integer, String>> cellsBySheet) throws Exception;
+
+    // Ranges of the form "<sheet>!<A1 range>" in a single call.
+    void updateRanges(String spreadsheetId, List<ValueRange> data) throws Exception;
+
+    // Results in request order.
+    List<ValueRange> batchGet(String spreadsheetId, List<String> ranges) throws Exception;
+
+    List<String> getSheetTitles(String spreadsheetId) throws Exception;
+
+    // Appends [email, password, profiles..., payment method, identifier]; returns the 1-based row, or -1.
+    int appendOwnerRow(String spreadsheetId, String sheetName, String email, String password,
+                       List<String> profileNames, String paymentMethod, String identifier) throws Exception;
+}
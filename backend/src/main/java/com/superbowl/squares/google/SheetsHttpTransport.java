@@ -0,0 +1,189 @@
+package com.superbowl.squares.google;
+
+import com.google.api.client.googleapis.javanet.GoogleNetHttpTransport;
+import com.google.api.client.http.HttpExecuteInterceptor;
+import com.google.api.client.http.HttpRequestInitializer;
+import com.google.api.client.http.HttpTransport;
+import com.google.api.client.http.apache.v2.ApacheHttpTransport;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.apache.http.HttpHost;
+import org.apache.http.HttpRequestInterceptor;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.client.protocol.HttpClientContext;
+import org.apache.http.config.RegistryBuilder;
+import org.apache.http.conn.socket.ConnectionSocketFactory;
+import org.apache.http.conn.socket.LayeredConnectionSocketFactory;
+import org.apache.http.conn.socket.PlainConnectionSocketFactory;
+import org.apache.http.conn.ssl.SSLConnectionSocketFactory;
+import org.apache.http.impl.client.HttpClientBuilder;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.protocol.HttpContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.security.GeneralSecurityException;
+import java.util.concurrent.TimeUnit;
+
+// HTTP transport for the Google Sheets client and its OAuth token fetches.
+// sheets.http.transport=pooled (default) runs on Apache HttpClient with a shared keep-alive connection
+// pool, so sheet syncs reuse TLS connections instead of handshaking per call; "net" is the JDK
+// HttpURLConnection transport used before. Either way every request gets the configured timeouts
+// and a latency timer. Connections opened vs. requests sent shows how well the pool is reused.
+@Component
+@ConditionalOnProperty(name = "sheets.gateway", havingValue = "google", matchIfMissing = true)
+public class SheetsHttpTransport {
+
+    private static final Logger logger = LoggerFactory.getLogger(SheetsHttpTransport.class);
+
+    @Value("${sheets.http.transport:pooled}")
+    private String transportType;
+
+    @Value("${sheets.http.connect-timeout-ms:5000}")
+    private int connectTimeoutMs;
+
+    @Value("${sheets.http.read-timeout-ms:20000}")
+    private int readTimeoutMs;
+
+    @Value("${sheets.http.max-connections:16}")
+    private int maxConnections;
+
+    @Value("${sheets.http.keep-alive-ms:60000}")
+    private long keepAliveMs;
+
+    @Value("${sheets.http.pool-wait-ms:5000}")
+    private int poolWaitMs;
+
+    private final MeterRegistry meterRegistry;
+    private final Counter connectionsOpened;
+    private HttpTransport transport;
+
+    public SheetsHttpTransport(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        this.connectionsOpened = Counter.builder("sheets.http.connections.opened")
+                .description("New connections (TCP + TLS handshake) opened to Google; compare with sheets.http.requests")
+                .register(meterRegistry);
+    }
+
+    // Built on first use (by the client warmup), not at startup.
+    public synchronized HttpTransport get() throws GeneralSecurityException, IOException {
+        if (transport == null) {
+            if ("net".equalsIgnoreCase(transportType)) {
+                transport = GoogleNetHttpTransport.newTrustedTransport();
+            } else {
+                transport = new ApacheHttpTransport(pooledClient().build());
+            }
+            logger.info("Google Sheets HTTP transport: {}", transport.getClass().getSimpleName());
+        }
+        return transport;
+    }
+
+    // Wraps the credentials' initializer: timeouts and request timing around the auth interceptor.
+    public HttpRequestInitializer initializer(HttpRequestInitializer credentials) {
+        return request -> {
+            credentials.initialize(request);
+            request.setConnectTimeout(connectTimeoutMs);
+            request.setReadTimeout(readTimeoutMs);
+
+            HttpExecuteInterceptor auth = request.getInterceptor();
+            long[] startedAt = new long[1];
+            request.setInterceptor(r -> {
+                startedAt[0] = System.nanoTime();
+                if (auth != null) {
+                    auth.intercept(r);
+                }
+            });
+            request.setResponseInterceptor(response -> Timer.builder("sheets.http.requests")
+                    .description("Google API HTTP requests, from send to response headers")
+                    .tag("method", request.getRequestMethod())
+                    .tag("status", Integer.toString(response.getStatusCode()))
+                    .register(meterRegistry)
+                    .record(System.nanoTime() - startedAt[0], TimeUnit.NANOSECONDS));
+        };
+    }
+
+    @PreDestroy
+    public synchronized void shutdown() throws IOException {
+        if (transport != null) {
+            transport.shutdown();
+        }
+    }
+
+    private HttpClientBuilder pooledClient() {
+        PoolingHttpClientConnectionManager pool = new PoolingHttpClientConnectionManager(RegistryBuilder.<ConnectionSocketFactory>create()
+                .register("https", new CountingSocketFactory(SSLConnectionSocketFactory.getSocketFactory(), connectionsOpened))
+                .register("http", new CountingSocketFactory(PlainConnectionSocketFactory.getSocketFactory(), connectionsOpened))
+                .build());
+        pool.setMaxTotal(maxConnections);
+        pool.setDefaultMaxPerRoute(maxConnections);
+        // Google closes idle connections after a while; re-check one that sat unused before leasing it.
+        pool.setValidateAfterInactivity(2000);
+
+        Gauge.builder("sheets.http.pool.leased", pool, p -> p.getTotalStats().getLeased())
+                .description("Pooled connections to Google in use")
+                .register(meterRegistry);
+        Gauge.builder("sheets.http.pool.available", pool, p -> p.getTotalStats().getAvailable())
+                .description("Idle keep-alive connections to Google ready for reuse")
+                .register(meterRegistry);
+        Gauge.builder("sheets.http.pool.pending", pool, p -> p.getTotalStats().getPending())
+                .description("Requests waiting for a pooled connection")
+                .register(meterRegistry);
+
+        // Redirects and retries stay with the Google client (and SheetsApiGuard); gzip is decoded
+        // by the Google client, so HttpClient must not decode it first.
+        // ApacheHttpRequest gives every request its own RequestConfig, which replaces any client default,
+        // so the bound on waiting for a free pooled connection is added to each request's config here.
+        // Request interceptors run before the connection is leased, which reads the config from the context.
+        return HttpClientBuilder.create()
+                .setConnectionManager(pool)
+                .addInterceptorFirst((HttpRequestInterceptor) (request, context) -> {
+                    HttpClientContext clientContext = HttpClientContext.adapt(context);
+                    clientContext.setRequestConfig(RequestConfig.copy(clientContext.getRequestConfig())
+                            .setConnectionRequestTimeout(poolWaitMs)
+                            .build());
+                })
+                .setKeepAliveStrategy((response, context) -> keepAliveMs)
+                .evictIdleConnections(keepAliveMs, TimeUnit.MILLISECONDS)
+                .disableRedirectHandling()
+                .disableAutomaticRetries()
+                .disableContentCompression()
+                .useSystemProperties();
+    }
+
+    // Counts sockets actually opened; a request on a reused connection never gets here.
+    private static final class CountingSocketFactory implements LayeredConnectionSocketFactory {
+        private final ConnectionSocketFactory delegate;
+        private final Counter opened;
+
+        CountingSocketFactory(ConnectionSocketFactory delegate, Counter opened) {
+            this.delegate = delegate;
+            this.opened = opened;
+        }
+
+        @Override
+        public Socket createSocket(HttpContext context) throws IOException {
+            return delegate.createSocket(context);
+        }
+
+        @Override
+        public Socket connectSocket(int connectTimeout, Socket sock, HttpHost host, InetSocketAddress remoteAddress,
+                                    InetSocketAddress localAddress, HttpContext context) throws IOException {
+            opened.increment();
+            return delegate.connectSocket(connectTimeout, sock, host, remoteAddress, localAddress, context);
+        }
+
+        @Override
+        public Socket createLayeredSocket(Socket socket, String target, int port, HttpContext context) throws IOException {
+            return ((LayeredConnectionSocketFactory) delegate).createLayeredSocket(socket, target, port, context);
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.superbowl.squares.google;
+
+import com.superbowl.squares.model.SheetsOutboxEvent;
+import com.superbowl.squares.repository.SheetsOutboxRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+// Records Google Sheets writes in the caller's transaction; SheetsOutboxWorker applies them after
+// commit, so requests never wait on the Sheets API and a rolled-back change never reaches the sheet.
+@Component
+public class SheetsOutbox {
+
+    @Autowired
+    private SheetsOutboxRepository outboxRepository;
+
+    @Autowired
+    private OutboxPasswordCipher passwordCipher;
+
+    // Queue a rewrite of the user's Owners row from whatever the database holds when it runs.
+    // oldEmail: the email the row is filed under if it just changed; password: a new sheet password,
+    // stored encrypted and cleared once the event is processed or parked.
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void ownerChanged(Long userId, String oldEmail, String password) {
+        SheetsOutboxEvent event = new SheetsOutboxEvent();
+        event.setType(SheetsOutboxEvent.Type.OWNER_UPSERT);
+        event.setUserId(userId);
+        event.setOldEmail(oldEmail);
+        event.setSheetPassword(passwordCipher.encrypt(password));
+        event.setNextAttemptAt(LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS));
+        outboxRepository.save(event);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void ownerChanged(Long userId) {
+        ownerChanged(userId, null, null);
+    }
+}
@@ -0,0 +1,184 @@
+package com.superbowl.squares.google;
+
+import com.superbowl.squares.exception.SheetsUnavailableException;
+import com.superbowl.squares.model.SheetsOutboxEvent;
+import com.superbowl.squares.model.User;
+import com.superbowl.squares.repository.SheetsOutboxRepository;
+import com.superbowl.squares.repository.UserRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Drains sheets_outbox: applies due events oldest first, one user's events strictly in order, and
+// retries failures with exponential backoff until max-attempts, after which an event is parked as
+// FAILED for a look by hand. Processed events are kept for a week, then deleted.
+@Component
+public class SheetsOutboxWorker {
+
+    private static final Logger logger = LoggerFactory.getLogger(SheetsOutboxWorker.class);
+
+    @Value("${sheets.outbox.batch-size:20}")
+    private int batchSize;
+
+    @Value("${sheets.outbox.max-attempts:10}")
+    private int maxAttempts;
+
+    @Value("${sheets.outbox.backoff-base-ms:2000}")
+    private long backoffBaseMs;
+
+    @Value("${sheets.outbox.backoff-max-ms:600000}")
+    private long backoffMaxMs;
+
+    @Value("${sheets.outbox.lease-ms:120000}")
+    private long leaseMs;
+
+    @Autowired
+    private SheetsOutboxRepository outboxRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private OwnersSheetSync ownersSheetSync;
+
+    @Autowired
+    private OutboxPasswordCipher passwordCipher;
+
+    private final AtomicLong pending = new AtomicLong();
+    private final AtomicLong lagSeconds = new AtomicLong();
+    private final Counter processed;
+    private final Counter failures;
+    private final Counter parked;
+
+    public SheetsOutboxWorker(MeterRegistry meterRegistry) {
+        Gauge.builder("sheets.outbox.pending", pending, AtomicLong::get)
+                .description("Google Sheets writes waiting in the outbox")
+                .register(meterRegistry);
+        Gauge.builder("sheets.outbox.lag.seconds", lagSeconds, AtomicLong::get)
+                .description("Age of the oldest pending Google Sheets write")
+                .register(meterRegistry);
+        this.processed = Counter.builder("sheets.outbox.processed")
+                .description("Google Sheets writes applied from the outbox")
+                .register(meterRegistry);
+        this.failures = Counter.builder("sheets.outbox.failures")
+                .description("Failed attempts to apply a Google Sheets write (each is retried)")
+                .register(meterRegistry);
+        this.parked = Counter.builder("sheets.outbox.parked")
+                .description("Google Sheets writes given up on after max-attempts")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${sheets.outbox.poll-ms:1000}")
+    public void drain() {
+        try {
+            LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+            List<SheetsOutboxEvent> due = outboxRepository.findDue(
+                    SheetsOutboxEvent.Status.PENDING, now, PageRequest.of(0, batchSize));
+            Set<Long> blockedUsers = new HashSet<>();
+            for (SheetsOutboxEvent event : due) {
+                Long userId = event.getUserId();
+                if (userId != null && (blockedUsers.contains(userId) ||
+                        outboxRepository.existsByUserIdAndStatusAndIdLessThan(userId, SheetsOutboxEvent.Status.PENDING, event.getId()))) {
+                    blockedUsers.add(userId);
+                    continue;
+                }
+                LocalDateTime leaseUntil = now.plus(Duration.ofMillis(leaseMs)).truncatedTo(ChronoUnit.SECONDS);
+                if (outboxRepository.lease(event.getId(), SheetsOutboxEvent.Status.PENDING, event.getNextAttemptAt(), leaseUntil) == 0) {
+                    continue;
+                }
+                if (!process(event) && userId != null) {
+                    blockedUsers.add(userId);
+                }
+            }
+        } catch (Exception e) {
+            logger.warn("Sheets outbox drain failed: {}", e.getMessage());
+        } finally {
+            updateBacklogMetrics();
+        }
+    }
+
+    @Scheduled(cron = "${sheets.outbox.cleanup-cron:0 30 4 * * *}")
+    public void deleteProcessed() {
+        int deleted = outboxRepository.deleteProcessedBefore(SheetsOutboxEvent.Status.DONE, LocalDateTime.now().minusDays(7));
+        logger.info("Deleted {} processed sheets outbox events", deleted);
+    }
+
+    private boolean process(SheetsOutboxEvent event) {
+        try {
+            apply(event);
+            event.setStatus(SheetsOutboxEvent.Status.DONE);
+            event.setProcessedAt(LocalDateTime.now());
+            event.setSheetPassword(null);
+            event.setLastError(null);
+            outboxRepository.save(event);
+            processed.increment();
+            return true;
+        } catch (SheetsUnavailableException e) {
+            // Refused before reaching Google (circuit open, quota): not the event's fault, so it keeps its attempts.
+            event.setNextAttemptAt(LocalDateTime.now().plusSeconds(e.getRetryAfterSeconds()).truncatedTo(ChronoUnit.SECONDS));
+            outboxRepository.save(event);
+            return false;
+        } catch (Exception e) {
+            failures.increment();
+            int attempts = event.getAttempts() + 1;
+            event.setAttempts(attempts);
+            event.setLastError(truncate(e.getClass().getSimpleName() + ": " + e.getMessage()));
+            if (attempts >= maxAttempts) {
+                event.setStatus(SheetsOutboxEvent.Status.FAILED);
+                event.setSheetPassword(null);
+                parked.increment();
+                logger.warn("Giving up on sheets outbox event {} after {} attempts: {}", event.getId(), attempts, e.getMessage());
+            } else {
+                long delay = Math.min(backoffMaxMs, backoffBaseMs << Math.min(attempts - 1, 20));
+                event.setNextAttemptAt(LocalDateTime.now().plus(Duration.ofMillis(delay)).truncatedTo(ChronoUnit.SECONDS));
+                logger.warn("Sheets outbox event {} failed (attempt {}), retrying in {} ms: {}", event.getId(), attempts, delay, e.getMessage());
+            }
+            outboxRepository.save(event);
+            return false;
+        }
+    }
+
+    private void apply(SheetsOutboxEvent event) throws Exception {
+        switch (event.getType()) {
+            case OWNER_UPSERT -> {
+                Optional<User> user = userRepository.findById(event.getUserId());
+                if (user.isEmpty()) {
+                    logger.info("Skipping sheets outbox event {}: user {} no longer exists", event.getId(), event.getUserId());
+                    return;
+                }
+                ownersSheetSync.upsertOwnerRow(user.get(), event.getOldEmail(), passwordCipher.decrypt(event.getSheetPassword()));
+            }
+        }
+    }
+
+    private void updateBacklogMetrics() {
+        try {
+            pending.set(outboxRepository.countByStatus(SheetsOutboxEvent.Status.PENDING));
+            lagSeconds.set(outboxRepository.findFirstByStatusOrderByIdAsc(SheetsOutboxEvent.Status.PENDING)
+                    .map(oldest -> Math.max(0, Duration.between(oldest.getCreatedAt(), LocalDateTime.now()).getSeconds()))
+                    .orElse(0L));
+        } catch (Exception e) {
+            logger.debug("Could not read sheets outbox backlog: {}", e.getMessage());
+        }
+    }
+
+    private static String truncate(String message) {
+        return message.length() <= 1000 ? message : message.substring(0, 1000);
+    }
+}
@@ -0,0 +1,83 @@
+package com.superbowl.squares.grid;
+
+import com.superbowl.squares.google.GridSheetWriteBehind;
+import com.superbowl.squares.model.Profile;
+import com.superbowl.squares.model.Square;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+// Writes a micro-batch of already-validated claims for one pool: one JDBC batch of conditional
+// UPDATEs, one transaction, one commit. Each claim's row count says whether it won its square.
+@Component
+public class ClaimBatchWriter {
+
+    private static final String CLAIM_SQL =
+            "UPDATE squares SET profile_id = ?, profile_name = ?, claimed_at = ?, version = version + 1 " +
+            "WHERE pool_id = ? AND row_position = ? AND col_position = ? AND profile_id IS NULL";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private GridReadModel gridReadModel;
+
+    @Autowired
+    private GridSheetWriteBehind gridSheetWriteBehind;
+
+    // Returns the claimed square for each command, or null where the square was already taken.
+    public List<Square> write(Long poolId, List<ClaimCommand> claims) {
+        LocalDateTime claimedAt = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        Timestamp claimedAtTs = Timestamp.valueOf(claimedAt);
+
+        return transactionTemplate.execute(status -> {
+            List<Object[]> args = new ArrayList<>(claims.size());
+            for (ClaimCommand claim : claims) {
+                args.add(new Object[] { claim.getProfileId(), claim.getProfileName(), claimedAtTs,
+                        poolId, claim.getRowPosition(), claim.getColPosition() });
+            }
+            int[] counts = jdbcTemplate.batchUpdate(CLAIM_SQL, args);
+            // Winning is read from the exact row count. A driver that reports SUCCESS_NO_INFO (MySQL with
+            // rewriteBatchedStatements=true) can't tell a win from a lost race, so roll back rather than guess.
+            for (int count : counts) {
+                if (count != 0 && count != 1) {
+                    throw new IllegalStateException("Claim batch got update count " + count + " instead of 0 or 1; "
+                            + "exact counts are required (drop rewriteBatchedStatements from the JDBC URL)");
+                }
+            }
+
+            List<Square> results = new ArrayList<>(claims.size());
+            for (int i = 0; i < claims.size(); i++) {
+                if (counts[i] == 0) {
+                    results.add(null);
+                    continue;
+                }
+                ClaimCommand claim = claims.get(i);
+                Square square = new Square();
+                square.setId(claim.getSquareId());
+                square.setRowPosition(claim.getRowPosition());
+                square.setColPosition(claim.getColPosition());
+                Profile profile = new Profile();
+                profile.setId(claim.getProfileId());
+                profile.setFullName(claim.getProfileName());
+                square.setProfile(profile);
+                square.setProfileName(claim.getProfileName());
+                square.setClaimedAt(claimedAt);
+                gridReadModel.claimed(poolId, square);
+                gridSheetWriteBehind.cellChanged(poolId, claim.getRowPosition(), claim.getColPosition(), claim.getProfileName());
+                results.add(square);
+            }
+            return results;
+        });
+    }
+}
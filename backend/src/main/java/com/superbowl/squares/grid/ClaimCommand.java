@@ -0,0 +1,13 @@
+package com.superbowl.squares.grid;
+
+import lombok.Value;
+
+// A claim that has already passed the ownership check and only needs its square.
+@Value
+public class ClaimCommand {
+    Long squareId;
+    int rowPosition;
+    int colPosition;
+    Long profileId;
+    String profileName;
+}
@@ -0,0 +1,310 @@
+package com.superbowl.squares.grid;
+
+import com.superbowl.squares.exception.PoolBusyException;
+import com.superbowl.squares.exception.SquareAlreadyClaimedException;
+import com.superbowl.squares.model.Square;
+import com.superbowl.squares.util.Transactions;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+// Single writer per pool for square claims and unclaims.
+// Requests are queued per pool and drained by at most one worker at a time, so writes to a pool never
+// contend with each other in MySQL. Claims are checked against the in-memory grid (plus earlier claims
+// in the same batch) before any SQL runs, and the survivors are written as one micro-batch.
+// Each lane is also the pool's admission queue: past max-queue-depth new requests are turned away
+// with a 429 instead of parking another Tomcat thread, and a lane gives up its worker after every
+// batch so one hot pool cannot hold the workers other pools need.
+@Component
+public class ClaimSequencer {
+
+    private static final Logger logger = LoggerFactory.getLogger(ClaimSequencer.class);
+
+    @Value("${squares.sequencer.max-batch:32}")
+    private int maxBatch;
+
+    @Value("${squares.sequencer.timeout-ms:10000}")
+    private long timeoutMs;
+
+    @Value("${squares.sequencer.max-queue-depth:50}")
+    private int maxQueueDepth;
+
+    @Value("${squares.sequencer.retry-after-seconds:1}")
+    private long retryAfterSeconds;
+
+    @Autowired
+    private GridReadModel gridReadModel;
+
+    @Autowired
+    private ClaimBatchWriter claimBatchWriter;
+
+    private final MeterRegistry meterRegistry;
+    private final DistributionSummary batchSizes;
+    private final ConcurrentMap<Long, Lane> lanes = new ConcurrentHashMap<>();
+    private final ExecutorService workers;
+
+    public ClaimSequencer(MeterRegistry meterRegistry, @Value("${squares.sequencer.threads:4}") int threads) {
+        this.meterRegistry = meterRegistry;
+        this.batchSizes = DistributionSummary.builder("squares.claim.batch.size")
+                .description("Claims written per micro-batch")
+                .register(meterRegistry);
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.workers = Executors.newFixedThreadPool(threads, r -> {
+            Thread t = new Thread(r, "claim-sequencer-" + threadNumber.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    public Square claim(Long poolId, ClaimCommand claim) {
+        return await(lane(poolId).enqueue(new ClaimItem(claim)));
+    }
+
+    // Runs an arbitrary write (unclaim, batch claim) in the pool's order.
+    public <T> T run(Long poolId, Supplier<T> task) {
+        return await(lane(poolId).enqueue(new TaskItem<>(task)));
+    }
+
+    // Drops the pool's lane and its per-pool meters once the deletion commits. Requests still queued
+    // are drained by the detached lane as usual.
+    public void poolDeleted(Long poolId) {
+        Transactions.afterCommit(() -> {
+            Lane lane = lanes.remove(poolId);
+            if (lane != null) {
+                lane.removeMeters();
+            }
+        });
+    }
+
+    public int getQueueDepth(Long poolId) {
+        Lane lane = lanes.get(poolId);
+        return lane != null ? lane.depth.get() : 0;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        workers.shutdown();
+    }
+
+    private Lane lane(Long poolId) {
+        return lanes.computeIfAbsent(poolId, Lane::new);
+    }
+
+    private <T> T await(Item<T> item) {
+        try {
+            return item.result.get(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            if (item.started.compareAndSet(false, true)) {
+                // Never reached the worker; it will be skipped.
+                throw new PoolBusyException("Square service is busy, please try again", retryAfterSeconds);
+            }
+            // Already being written: wait for the real outcome rather than report a false failure.
+            return join(item);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while waiting for square update");
+        } catch (ExecutionException e) {
+            throw unwrap(e);
+        }
+    }
+
+    private <T> T join(Item<T> item) {
+        try {
+            return item.result.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while waiting for square update");
+        } catch (ExecutionException e) {
+            throw unwrap(e);
+        }
+    }
+
+    private static RuntimeException unwrap(ExecutionException e) {
+        Throwable cause = e.getCause();
+        if (cause instanceof RuntimeException runtime) {
+            return runtime;
+        }
+        return new RuntimeException(cause);
+    }
+
+    private abstract static class Item<T> {
+        final long enqueuedAt = System.nanoTime();
+        final AtomicBoolean started = new AtomicBoolean();
+        final CompletableFuture<T> result = new CompletableFuture<>();
+    }
+
+    private static final class ClaimItem extends Item<Square> {
+        final ClaimCommand claim;
+
+        ClaimItem(ClaimCommand claim) {
+            this.claim = claim;
+        }
+    }
+
+    private static final class TaskItem<T> extends Item<T> {
+        final Supplier<T> task;
+
+        TaskItem(Supplier<T> task) {
+            this.task = task;
+        }
+    }
+
+    private final class Lane {
+        private final Long poolId;
+        private final Queue<Item<?>> queue = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger depth = new AtomicInteger();
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private final Gauge depthGauge;
+        private final Timer waitTimer;
+        private final Counter rejected;
+
+        Lane(Long poolId) {
+            this.poolId = poolId;
+            String pool = String.valueOf(poolId);
+            this.depthGauge = Gauge.builder("squares.claim.queue.depth", depth, AtomicInteger::get)
+                    .description("Claim/unclaim requests waiting for the pool's writer")
+                    .tag("pool", pool)
+                    .register(meterRegistry);
+            this.waitTimer = Timer.builder("squares.claim.queue.wait")
+                    .description("Time a claim/unclaim request waits before its pool's writer picks it up")
+                    .tag("pool", pool)
+                    .register(meterRegistry);
+            this.rejected = Counter.builder("squares.claim.rejected")
+                    .description("Claim/unclaim requests turned away because the pool's queue was full")
+                    .tag("pool", pool)
+                    .register(meterRegistry);
+        }
+
+        void removeMeters() {
+            meterRegistry.remove(depthGauge);
+            meterRegistry.remove(waitTimer);
+            meterRegistry.remove(rejected);
+        }
+
+        <T> Item<T> enqueue(Item<T> item) {
+            if (depth.incrementAndGet() > maxQueueDepth) {
+                depth.decrementAndGet();
+                rejected.increment();
+                throw new PoolBusyException("Too many requests for this pool, please try again", retryAfterSeconds);
+            }
+            queue.add(item);
+            if (draining.compareAndSet(false, true)) {
+                workers.execute(this::drain);
+            }
+            return item;
+        }
+
+        // One batch (or one task) per turn, then the worker goes back to the shared pool; a lane with
+        // more work re-submits itself behind the other pools' lanes.
+        private void drain() {
+            List<ClaimItem> batch = new ArrayList<>();
+            Item<?> item;
+            while (batch.size() < maxBatch && (item = queue.poll()) != null) {
+                depth.decrementAndGet();
+                if (!item.started.compareAndSet(false, true)) {
+                    continue; // caller gave up waiting
+                }
+                waitTimer.record(System.nanoTime() - item.enqueuedAt, TimeUnit.NANOSECONDS);
+
+                if (item instanceof ClaimItem claimItem) {
+                    batch.add(claimItem);
+                } else {
+                    // Keep submission order: pending claims are written before the task runs.
+                    flush(batch);
+                    batch = new ArrayList<>();
+                    runTask((TaskItem<?>) item);
+                    break;
+                }
+            }
+            flush(batch);
+            draining.set(false);
+            // Re-check: an enqueue may have landed between the last poll and clearing the flag.
+            if (!queue.isEmpty() && draining.compareAndSet(false, true)) {
+                workers.execute(this::drain);
+            }
+        }
+
+        private <T> void runTask(TaskItem<T> item) {
+            try {
+                item.result.complete(item.task.get());
+            } catch (Throwable t) {
+                item.result.completeExceptionally(t);
+            }
+        }
+
+        private void flush(List<ClaimItem> batch) {
+            if (batch.isEmpty()) {
+                return;
+            }
+            try {
+                write(batch);
+            } catch (RuntimeException e) {
+                logger.warn("Claim batch for pool {} failed: {}", poolId, e.getMessage());
+                // A failed batch must not take the lane down; fail whatever is still pending.
+                batch.forEach(item -> item.result.completeExceptionally(e));
+            }
+        }
+
+        private void write(List<ClaimItem> batch) {
+            // Reject in memory first: squares already claimed, or claimed earlier in this batch.
+            GridSnapshot snapshot = gridReadModel.getSnapshot(poolId);
+            Set<Integer> taken = new HashSet<>();
+            List<ClaimItem> accepted = new ArrayList<>(batch.size());
+            for (ClaimItem item : batch) {
+                ClaimCommand claim = item.claim;
+                GridSnapshot.Cell cell = snapshot.getCell(claim.getRowPosition(), claim.getColPosition());
+                int index = claim.getRowPosition() * GridSnapshot.SIZE + claim.getColPosition();
+                if (cell == null) {
+                    item.result.completeExceptionally(new RuntimeException("Square not found"));
+                } else if (cell.isClaimed() || !taken.add(index)) {
+                    item.result.completeExceptionally(new SquareAlreadyClaimedException("Square is already claimed"));
+                } else {
+                    accepted.add(item);
+                }
+            }
+            if (accepted.isEmpty()) {
+                return;
+            }
+
+            batchSizes.record(accepted.size());
+            List<ClaimCommand> claims = new ArrayList<>(accepted.size());
+            accepted.forEach(item -> claims.add(item.claim));
+            List<Square> results = claimBatchWriter.write(poolId, claims);
+            for (int i = 0; i < accepted.size(); i++) {
+                Square square = results.get(i);
+                if (square != null) {
+                    accepted.get(i).result.complete(square);
+                } else {
+                    // Lost to a writer outside this sequencer (another instance, admin tooling).
+                    accepted.get(i).result.completeExceptionally(new SquareAlreadyClaimedException("Square is already claimed"));
+                }
+            }
+        }
+    }
+}
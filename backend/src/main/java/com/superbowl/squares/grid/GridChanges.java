@@ -0,0 +1,17 @@
+package com.superbowl.squares.grid;
+
+import lombok.Value;
+
+import java.util.List;
+
+// Answer to "what changed since version N": either the deltas, or (when N is too old or unknown)
+// null deltas, meaning the caller should fall back to the full snapshot.
+@Value
+public class GridChanges {
+    GridSnapshot snapshot;
+    List<GridDelta> deltas;
+
+    public boolean isFullSnapshot() {
+        return deltas == null;
+    }
+}
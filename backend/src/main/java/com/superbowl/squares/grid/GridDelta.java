@@ -0,0 +1,39 @@
+package com.superbowl.squares.grid;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Value;
+
+import java.time.LocalDateTime;
+
+// One change to a pool: a single square claimed/released, or the pool being locked/unlocked.
+// Each delta carries the grid version it produced.
+@Value
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class GridDelta {
+
+    public enum Type {
+        CLAIM, UNCLAIM, LOCK
+    }
+
+    Long poolId;
+    long version;
+    Type type;
+    Integer row;
+    Integer col;
+    Long profileId;
+    String profileName;
+    LocalDateTime claimedAt;
+    Boolean locked;
+
+    static GridDelta cellChanged(GridSnapshot snapshot, int index) {
+        GridSnapshot.Cell cell = snapshot.cellAt(index);
+        return new GridDelta(snapshot.getPoolId(), snapshot.getVersion(),
+                cell.isClaimed() ? Type.CLAIM : Type.UNCLAIM,
+                index / GridSnapshot.SIZE, index % GridSnapshot.SIZE,
+                cell.getProfileId(), cell.getProfileName(), cell.getClaimedAt(), null);
+    }
+
+    static GridDelta lockChanged(Long poolId, long version, boolean locked) {
+        return new GridDelta(poolId, version, Type.LOCK, null, null, null, null, null, locked);
+    }
+}
@@ -0,0 +1,304 @@
+package com.superbowl.squares.grid;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+// Fans grid deltas out to Server-Sent Events subscribers.
+// Idle subscribers hold no thread: each one is an emitter plus a small bounded queue, and a shared
+// sender pool drains only the queues that have something in them. Publishing never blocks; a
+// subscriber whose queue is full is disconnected (the browser's EventSource reconnects and catches up).
+// A servlet write to a stalled client blocks its sender thread, so a watchdog disconnects any
+// subscriber whose send runs past send-timeout-ms and adds a sender thread in place of the stuck one
+// until that write returns; a few stalled clients can't freeze the streams of everyone else.
+@Component
+public class GridEventBroadcaster {
+
+    private static final Logger logger = LoggerFactory.getLogger(GridEventBroadcaster.class);
+
+    private static final Object HEARTBEAT = new Object();
+
+    @Value("${grid.stream.buffer-size:64}")
+    private int bufferSize;
+
+    @Value("${grid.stream.max-subscribers:10000}")
+    private int maxSubscribers;
+
+    @Value("${grid.stream.timeout-ms:1800000}")
+    private long timeoutMs;
+
+    @Value("${grid.stream.send-timeout-ms:5000}")
+    private long sendTimeoutMs;
+
+    // Cap on extra threads standing in for stuck ones; past it, stalled clients are still dropped.
+    @Value("${grid.stream.max-stalled-senders:32}")
+    private int maxStalledSenders;
+
+    private final ConcurrentMap<Long, Set<Subscriber>> subscribers = new ConcurrentHashMap<>();
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+
+    private final ThreadPoolExecutor senders;
+    private final int senderThreads;
+    private final AtomicInteger stalledSenders = new AtomicInteger();
+
+    public GridEventBroadcaster(@Value("${grid.stream.sender-threads:4}") int senderThreads) {
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.senderThreads = senderThreads;
+        this.senders = new ThreadPoolExecutor(senderThreads, senderThreads, 60, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), r -> {
+            Thread t = new Thread(r, "grid-sse-" + threadNumber.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    // Returns null when the subscriber limit has been reached.
+    public SseEmitter subscribe(Long poolId, long currentVersion) {
+        if (subscriberCount.incrementAndGet() > maxSubscribers) {
+            subscriberCount.decrementAndGet();
+            logger.warn("Rejecting grid stream for pool {}: {} subscribers already connected", poolId, maxSubscribers);
+            return null;
+        }
+
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        Subscriber subscriber = new Subscriber(poolId, emitter, bufferSize);
+        subscribers.computeIfAbsent(poolId, id -> ConcurrentHashMap.newKeySet()).add(subscriber);
+
+        emitter.onCompletion(() -> remove(subscriber));
+        emitter.onTimeout(() -> remove(subscriber));
+        emitter.onError(e -> remove(subscriber));
+
+        // Tell the client which version the stream starts from so it can catch up if needed.
+        subscriber.offer(Map.of("poolId", poolId, "version", currentVersion));
+        return emitter;
+    }
+
+    public void publish(GridDelta delta) {
+        Set<Subscriber> poolSubscribers = subscribers.get(delta.getPoolId());
+        if (poolSubscribers == null) {
+            return;
+        }
+        for (Subscriber subscriber : poolSubscribers) {
+            if (!subscriber.offer(delta)) {
+                logger.debug("Dropping slow grid stream subscriber for pool {}", delta.getPoolId());
+                subscriber.close();
+            }
+        }
+    }
+
+    public int getSubscriberCount() {
+        return subscriberCount.get();
+    }
+
+    // Keeps idle connections open through proxies that cut silent streams (Cloudflare: ~100s).
+    @Scheduled(fixedDelayString = "${grid.stream.heartbeat-ms:20000}")
+    public void heartbeat() {
+        for (Set<Subscriber> poolSubscribers : subscribers.values()) {
+            for (Subscriber subscriber : poolSubscribers) {
+                if (!subscriber.offer(HEARTBEAT)) {
+                    subscriber.close();
+                }
+            }
+        }
+    }
+
+    // Disconnects subscribers stuck in a send for longer than send-timeout-ms.
+    @Scheduled(fixedDelayString = "${grid.stream.watchdog-ms:1000}")
+    public void watchdog() {
+        long now = System.nanoTime();
+        long timeoutNanos = TimeUnit.MILLISECONDS.toNanos(sendTimeoutMs);
+        for (Set<Subscriber> poolSubscribers : subscribers.values()) {
+            for (Subscriber subscriber : poolSubscribers) {
+                subscriber.checkStalled(now, timeoutNanos);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        subscribers.values().forEach(set -> set.forEach(Subscriber::close));
+        senders.shutdownNow();
+    }
+
+    // Keeps sender-threads healthy senders while some are blocked on stalled clients.
+    private synchronized void resizeSenders(int delta) {
+        int stalled = stalledSenders.addAndGet(delta);
+        int size = senderThreads + stalled;
+        if (size > senders.getMaximumPoolSize()) {
+            senders.setMaximumPoolSize(size);
+            senders.setCorePoolSize(size);
+        } else {
+            senders.setCorePoolSize(size);
+            senders.setMaximumPoolSize(size);
+        }
+    }
+
+    private void remove(Subscriber subscriber) {
+        Set<Subscriber> poolSubscribers = subscribers.get(subscriber.poolId);
+        if (poolSubscribers != null && poolSubscribers.remove(subscriber)) {
+            subscriberCount.decrementAndGet();
+            if (poolSubscribers.isEmpty()) {
+                subscribers.remove(subscriber.poolId, poolSubscribers);
+            }
+        }
+    }
+
+    private static final SendToken STALLED = new SendToken(0, null);
+
+    // One emitter.send: when it started (System.nanoTime) and on which sender thread.
+    private static final class SendToken {
+        final long startedAt;
+        final Thread thread;
+        // Guarded by the token's monitor.
+        boolean finished;
+        boolean replaced;
+
+        SendToken(long startedAt, Thread thread) {
+            this.startedAt = startedAt;
+            this.thread = thread;
+        }
+    }
+
+    private final class Subscriber {
+        private final Long poolId;
+        private final SseEmitter emitter;
+        private final Queue<Object> queue;
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private final AtomicBoolean closed = new AtomicBoolean();
+        // The send in progress (null when idle). The watchdog swaps it for STALLED to give up on that
+        // send; whichever side wins the compare-and-set decides, so the two never disagree about a send.
+        private final AtomicReference<SendToken> sending = new AtomicReference<>();
+
+        Subscriber(Long poolId, SseEmitter emitter, int capacity) {
+            this.poolId = poolId;
+            this.emitter = emitter;
+            this.queue = new ArrayBlockingQueue<>(capacity);
+        }
+
+        boolean offer(Object event) {
+            if (closed.get()) {
+                return true;
+            }
+            if (!queue.offer(event)) {
+                return false;
+            }
+            if (draining.compareAndSet(false, true)) {
+                senders.execute(this::drain);
+            }
+            return true;
+        }
+
+        private void drain() {
+            do {
+                Object event;
+                while ((event = queue.poll()) != null) {
+                    if (closed.get()) {
+                        queue.clear();
+                        break;
+                    }
+                    try {
+                        send(event);
+                    } catch (Exception e) {
+                        logger.debug("Grid stream send failed for pool {}: {}", poolId, e.getMessage());
+                        close();
+                    }
+                }
+                draining.set(false);
+                // Re-check: an offer may have landed between the last poll and clearing the flag.
+            } while (!queue.isEmpty() && draining.compareAndSet(false, true));
+        }
+
+        private void send(Object event) throws Exception {
+            SendToken token = new SendToken(System.nanoTime(), Thread.currentThread());
+            sending.set(token);
+            try {
+                write(event);
+            } finally {
+                if (!sending.compareAndSet(token, null)) {
+                    // The watchdog gave up on this send while it ran.
+                    sending.set(null);
+                    boolean replaced;
+                    synchronized (token) {
+                        token.finished = true;
+                        replaced = token.replaced;
+                    }
+                    // Any interrupt meant for the stuck write was delivered before `finished` was set.
+                    Thread.interrupted();
+                    completeQuietly();
+                    if (replaced) {
+                        resizeSenders(-1);
+                    }
+                }
+            }
+        }
+
+        private void write(Object event) throws Exception {
+            if (event == HEARTBEAT) {
+                emitter.send(SseEmitter.event().comment("ping"));
+            } else if (event instanceof GridDelta delta) {
+                emitter.send(SseEmitter.event()
+                        .id(Long.toString(delta.getVersion()))
+                        .name(delta.getType().name().toLowerCase())
+                        .data(delta, MediaType.APPLICATION_JSON));
+            } else {
+                emitter.send(SseEmitter.event().name("hello").data(event, MediaType.APPLICATION_JSON));
+            }
+        }
+
+        void checkStalled(long now, long timeoutNanos) {
+            SendToken token = sending.get();
+            if (token == null || token == STALLED || now - token.startedAt < timeoutNanos) {
+                return;
+            }
+            if (!sending.compareAndSet(token, STALLED)) {
+                return; // That send just finished.
+            }
+            if (closed.compareAndSet(false, true)) {
+                remove(this);
+                logger.debug("Dropping grid stream subscriber for pool {}: send blocked for over {} ms", poolId, sendTimeoutMs);
+            }
+            synchronized (token) {
+                if (!token.finished && stalledSenders.get() < maxStalledSenders) {
+                    token.replaced = true;
+                    resizeSenders(1);
+                    // Best effort: unblocks the write if the container honours interrupts.
+                    token.thread.interrupt();
+                }
+            }
+        }
+
+        void close() {
+            if (closed.compareAndSet(false, true)) {
+                remove(this);
+                // complete() can wait on a send stuck behind a slow client, so never run it on the publisher's thread.
+                senders.execute(this::completeQuietly);
+            }
+        }
+
+        private void completeQuietly() {
+            try {
+                emitter.complete();
+            } catch (Exception ignored) {
+                // Connection already gone.
+            }
+        }
+    }
+}
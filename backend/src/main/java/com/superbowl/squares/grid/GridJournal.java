@@ -0,0 +1,45 @@
+package com.superbowl.squares.grid;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Fixed-size ring buffer of the most recent deltas for one pool, in version order.
+// Not thread-safe: PoolGrid only touches it while holding its own lock.
+final class GridJournal {
+
+    private final GridDelta[] entries;
+    private int start;
+    private int size;
+
+    GridJournal(int capacity) {
+        this.entries = new GridDelta[Math.max(1, capacity)];
+    }
+
+    void append(GridDelta delta) {
+        int end = (start + size) % entries.length;
+        entries[end] = delta;
+        if (size < entries.length) {
+            size++;
+        } else {
+            start = (start + 1) % entries.length;
+        }
+    }
+
+    // Deltas with a version greater than `since`, or null when some of them have already been overwritten.
+    List<GridDelta> since(long since, long currentVersion) {
+        if (since == currentVersion) {
+            return List.of();
+        }
+        if (size == 0 || since > currentVersion || since < entries[start].getVersion() - 1) {
+            return null;
+        }
+        List<GridDelta> result = new ArrayList<>((int) (currentVersion - since));
+        for (int i = 0; i < size; i++) {
+            GridDelta delta = entries[(start + i) % entries.length];
+            if (delta.getVersion() > since) {
+                result.add(delta);
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,194 @@
+package com.superbowl.squares.grid;
+
+import com.superbowl.squares.model.Square;
+import com.superbowl.squares.repository.SquareRepository;
+import com.superbowl.squares.util.Transactions;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.UnaryOperator;
+
+// Authoritative in-memory copy of every pool grid that has been read since startup.
+// Grid reads are served from here; SquareService pushes claim/unclaim and profile changes in
+// after the corresponding DB transaction commits, so the model never shows uncommitted state.
+// Every cell change and every lock/unlock bumps the pool version by one, is published as a GridDelta
+// and is kept in a bounded per-pool journal so reconnecting clients can catch up from the version
+// they last saw.
+@Component
+public class GridReadModel {
+
+    private static final Logger logger = LoggerFactory.getLogger(GridReadModel.class);
+
+    private final ConcurrentMap<Long, PoolGrid> grids = new ConcurrentHashMap<>();
+
+    @Autowired
+    private SquareRepository squareRepository;
+
+    @Autowired
+    private GridEventBroadcaster broadcaster;
+
+    @Value("${grid.journal.capacity:256}")
+    private int journalCapacity;
+
+    public GridSnapshot getSnapshot(Long poolId) {
+        PoolGrid grid = grids.computeIfAbsent(poolId, PoolGrid::new);
+        GridSnapshot snapshot = grid.snapshot;
+        if (snapshot != null) {
+            return snapshot;
+        }
+
+        snapshot = grid.load();
+        if (snapshot.getSquareCount() == 0) {
+            // Unknown pool: don't keep a holder around for arbitrary ids.
+            grids.remove(poolId, grid);
+        }
+        return snapshot;
+    }
+
+    public GridChanges getChangesSince(Long poolId, long sinceVersion) {
+        GridSnapshot snapshot = getSnapshot(poolId);
+        PoolGrid grid = grids.get(poolId);
+        if (grid == null) {
+            return new GridChanges(snapshot, null);
+        }
+        return grid.changesSince(sinceVersion);
+    }
+
+    public void claimed(Long poolId, Square square) {
+        Long profileId = square.getProfile() != null ? square.getProfile().getId() : null;
+        String profileName = square.getProfileName();
+        LocalDateTime claimedAt = square.getClaimedAt();
+        Transactions.afterCommit(() -> update(poolId, square.getRowPosition(), square.getColPosition(),
+                cell -> cell.claimedBy(profileId, profileName, claimedAt)));
+    }
+
+    public void unclaimed(Long poolId, int row, int col) {
+        Transactions.afterCommit(() -> update(poolId, row, col, GridSnapshot.Cell::released));
+    }
+
+    public void profileRenamed(Long profileId, String profileName) {
+        Transactions.afterCommit(() -> grids.values().forEach(grid -> grid.updateWhere(profileId,
+                cell -> cell.claimedBy(cell.getProfileId(), profileName, cell.getClaimedAt()))));
+    }
+
+    public void profileDeleted(Long profileId) {
+        Transactions.afterCommit(() -> grids.values().forEach(grid -> grid.updateWhere(profileId, GridSnapshot.Cell::released)));
+    }
+
+    // Loads the grid if needed, so the lock change gets a real version and a place in the journal.
+    public void lockChanged(Long poolId, boolean locked) {
+        Transactions.afterCommit(() -> {
+            getSnapshot(poolId);
+            PoolGrid grid = grids.get(poolId);
+            if (grid != null) {
+                grid.lockChanged(locked);
+            }
+        });
+    }
+
+    public void evict(Long poolId) {
+        Transactions.afterCommit(() -> grids.remove(poolId));
+    }
+
+    private void update(Long poolId, int row, int col, UnaryOperator<GridSnapshot.Cell> change) {
+        PoolGrid grid = grids.get(poolId);
+        if (grid != null) {
+            grid.update(GridSnapshot.index(row, col), change);
+        }
+    }
+
+    private final class PoolGrid {
+        private final Long poolId;
+        // Published snapshot; null until the first load completes.
+        private volatile GridSnapshot snapshot;
+        private final GridJournal journal;
+
+        PoolGrid(Long poolId) {
+            this.poolId = poolId;
+            this.journal = new GridJournal(journalCapacity);
+        }
+
+        // Loading holds the grid lock, so concurrent first reads share one query and any change
+        // committed while the query runs is applied on top of its result rather than lost.
+        synchronized GridSnapshot load() {
+            if (snapshot != null) {
+                return snapshot;
+            }
+            List<Square> squares = squareRepository.findByPoolId(poolId);
+            GridSnapshot.Cell[] cells = new GridSnapshot.Cell[GridSnapshot.CELL_COUNT];
+            for (Square square : squares) {
+                Long profileId = square.getProfile() != null ? square.getProfile().getId() : null;
+                cells[GridSnapshot.index(square.getRowPosition(), square.getColPosition())] = new GridSnapshot.Cell(
+                        square.getId(),
+                        profileId,
+                        profileId != null ? square.getProfileName() : null,
+                        profileId != null ? square.getClaimedAt() : null);
+            }
+            // Seed the version from the clock so it keeps increasing across reloads and restarts.
+            snapshot = new GridSnapshot(poolId, System.currentTimeMillis(), cells);
+            logger.debug("Loaded grid for pool {} ({} squares)", poolId, squares.size());
+            return snapshot;
+        }
+
+        synchronized void update(int index, UnaryOperator<GridSnapshot.Cell> change) {
+            GridSnapshot current = snapshot;
+            if (current == null) {
+                // Not loaded yet; the first read will pick the change up from the database.
+                return;
+            }
+            GridSnapshot.Cell[] cells = current.copyCells();
+            if (cells[index] == null) {
+                return;
+            }
+            cells[index] = change.apply(cells[index]);
+            GridSnapshot next = new GridSnapshot(poolId, current.getVersion() + 1, cells);
+            publish(next, GridDelta.cellChanged(next, index));
+        }
+
+        synchronized void updateWhere(Long profileId, UnaryOperator<GridSnapshot.Cell> change) {
+            GridSnapshot current = snapshot;
+            if (current == null) {
+                return;
+            }
+            // One version per changed cell, so every version maps to exactly one delta.
+            for (int i = 0; i < GridSnapshot.CELL_COUNT; i++) {
+                GridSnapshot.Cell cell = current.cellAt(i);
+                if (cell != null && profileId.equals(cell.getProfileId())) {
+                    GridSnapshot.Cell[] cells = current.copyCells();
+                    cells[i] = change.apply(cell);
+                    current = new GridSnapshot(poolId, current.getVersion() + 1, cells);
+                    publish(current, GridDelta.cellChanged(current, i));
+                }
+            }
+        }
+
+        // Same cells under a new version, so the lock change is journaled in order with cell changes.
+        synchronized void lockChanged(boolean locked) {
+            GridSnapshot current = snapshot;
+            if (current == null) {
+                return;
+            }
+            GridSnapshot next = new GridSnapshot(poolId, current.getVersion() + 1, current.copyCells());
+            publish(next, GridDelta.lockChanged(poolId, next.getVersion(), locked));
+        }
+
+        synchronized GridChanges changesSince(long sinceVersion) {
+            GridSnapshot current = snapshot != null ? snapshot : load();
+            return new GridChanges(current, journal.since(sinceVersion, current.getVersion()));
+        }
+
+        // Caller holds the grid lock, so deltas for a pool are journaled and published in version order.
+        private void publish(GridSnapshot next, GridDelta delta) {
+            snapshot = next;
+            journal.append(delta);
+            broadcaster.publish(delta);
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package com.superbowl.squares.grid;
+
+import com.superbowl.squares.model.Profile;
+import com.superbowl.squares.model.Square;
+import lombok.Value;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+// Immutable 10x10 view of one pool's squares. Updates produce a new snapshot with a higher version,
+// so readers can hold on to an instance without locking.
+public final class GridSnapshot {
+
+    public static final int SIZE = 10;
+    public static final int CELL_COUNT = SIZE * SIZE;
+
+    private final Long poolId;
+    private final long version;
+    // Indexed by row * SIZE + col; null when the pool has no square at that position.
+    private final Cell[] cells;
+    private final int squareCount;
+    private final int claimedCount;
+
+    GridSnapshot(Long poolId, long version, Cell[] cells) {
+        this.poolId = poolId;
+        this.version = version;
+        this.cells = cells;
+        int present = 0;
+        int claimed = 0;
+        for (Cell cell : cells) {
+            if (cell == null) continue;
+            present++;
+            if (cell.isClaimed()) claimed++;
+        }
+        this.squareCount = present;
+        this.claimedCount = claimed;
+    }
+
+    public Long getPoolId() {
+        return poolId;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public int getSquareCount() {
+        return squareCount;
+    }
+
+    public int getClaimedCount() {
+        return claimedCount;
+    }
+
+    public Cell getCell(int row, int col) {
+        return cells[index(row, col)];
+    }
+
+    Cell cellAt(int index) {
+        return cells[index];
+    }
+
+    static int index(int row, int col) {
+        if (row < 0 || row >= SIZE || col < 0 || col >= SIZE) {
+            throw new IllegalArgumentException("Square position out of range: " + row + "," + col);
+        }
+        return row * SIZE + col;
+    }
+
+    Cell[] copyCells() {
+        return cells.clone();
+    }
+
+    // Detached Square instances shaped like the entities the grid endpoint has always returned.
+    public List<Square> toSquares() {
+        List<Square> squares = new ArrayList<>(CELL_COUNT);
+        for (int i = 0; i < CELL_COUNT; i++) {
+            Cell cell = cells[i];
+            if (cell == null) continue;
+
+            Profile profile = null;
+            if (cell.isClaimed()) {
+                profile = new Profile();
+                profile.setId(cell.getProfileId());
+                profile.setFullName(cell.getProfileName());
+            }
+            Square square = new Square();
+            square.setId(cell.getSquareId());
+            square.setRowPosition(i / SIZE);
+            square.setColPosition(i % SIZE);
+            square.setProfile(profile);
+            square.setProfileName(cell.getProfileName());
+            square.setClaimedAt(cell.getClaimedAt());
+            squares.add(square);
+        }
+        return squares;
+    }
+
+    @Value
+    public static class Cell {
+        Long squareId;
+        Long profileId;
+        String profileName;
+        LocalDateTime claimedAt;
+
+        public boolean isClaimed() {
+            return profileId != null;
+        }
+
+        Cell claimedBy(Long profileId, String profileName, LocalDateTime claimedAt) {
+            return new Cell(squareId, profileId, profileName, claimedAt);
+        }
+
+        Cell released() {
+            return new Cell(squareId, null, null, null);
+        }
+    }
+}
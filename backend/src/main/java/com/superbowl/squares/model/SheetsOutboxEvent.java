@@ -0,0 +1,63 @@
+package com.superbowl.squares.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+
+// One Google Sheets write waiting to be applied by SheetsOutboxWorker.
+@Entity
+@Table(name = "sheets_outbox")
+@Data
+@NoArgsConstructor
+public class SheetsOutboxEvent {
+
+    public enum Type {
+        // Write the user's Owners row from the current database state, adding it if it is missing.
+        OWNER_UPSERT
+    }
+
+    public enum Status {
+        PENDING, DONE, FAILED
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "event_type", nullable = false, length = 32)
+    private Type type;
+
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Column(name = "old_email")
+    private String oldEmail;
+
+    // Encrypted by OutboxPasswordCipher.
+    @Column(name = "sheet_password", columnDefinition = "TEXT")
+    private String sheetPassword;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private Status status = Status.PENDING;
+
+    @Column(nullable = false)
+    private Integer attempts = 0;
+
+    @Column(name = "next_attempt_at", nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    @Column(name = "last_error", length = 1000)
+    private String lastError;
+
+    @CreationTimestamp
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "processed_at")
+    private LocalDateTime processedAt;
+}
@@ -44,6 +44,11 @@ public class Square {
     @Column(name = "claimed_at")
     private LocalDateTime claimedAt;
 
+    // Optimistic lock for entity-based writes; the conditional claim UPDATE bumps it too.
+    @Version
+    @JsonIgnore
+    private Long version;
+
     @Transient
     public boolean isAvailable() {
         return profile == null;
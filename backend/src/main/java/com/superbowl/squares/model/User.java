@@ -1,4 +1,5 @@
 package com.superbowl.squares.model;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonView;
 import com.superbowl.squares.view.View;
 import jakarta.persistence.*;
@@ -35,6 +36,11 @@ public class User {
     @JsonView(View.Summary.class)
     private Boolean isAdmin = false;
 
+    // Bumped whenever previously issued JWTs must stop working (see TokenVersions).
+    @Column(name = "token_version", nullable = false)
+    @JsonIgnore
+    private Integer tokenVersion = 0;
+
     @OneToMany(mappedBy = "user", cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.EAGER)
     @JsonView(View.Detail.class)
     private List<Profile> profiles = new ArrayList<>();
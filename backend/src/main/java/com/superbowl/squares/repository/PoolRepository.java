@@ -2,8 +2,11 @@ package com.superbowl.squares.repository;
 
 import com.superbowl.squares.model.Pool;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -12,4 +15,8 @@ public interface PoolRepository extends JpaRepository<Pool, Long> {
     List<Pool> findByIsActiveTrue();
     Optional<Pool> findByPoolName(String poolName);
     boolean existsByPoolName(String poolName);
+    List<Pool> findByPoolNameIn(Collection<String> poolNames);
+
+    @Query("SELECT p.poolName FROM Pool p WHERE p.id = :id")
+    Optional<String> findPoolNameById(@Param("id") Long id);
 }
@@ -2,13 +2,22 @@ package com.superbowl.squares.repository;
 
 import com.superbowl.squares.model.Profile;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface ProfileRepository extends JpaRepository<Profile, Long> {
     List<Profile> findByUserId(Long userId);
     long countByUserId(Long userId);
     boolean existsByFullNameIgnoreCase(String fullName);
+
+    @Query("SELECT p.fullName FROM Profile p WHERE p.id = :profileId")
+    Optional<String> findFullNameById(@Param("profileId") Long profileId);
+
+    @Query("SELECT p.fullName FROM Profile p WHERE p.id = :profileId AND p.user.email = :email")
+    Optional<String> findFullNameByIdAndUserEmail(@Param("profileId") Long profileId, @Param("email") String email);
 }
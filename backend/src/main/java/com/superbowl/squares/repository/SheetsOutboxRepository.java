@@ -0,0 +1,45 @@
+package com.superbowl.squares.repository;
+
+import com.superbowl.squares.model.SheetsOutboxEvent;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface SheetsOutboxRepository extends JpaRepository<SheetsOutboxEvent, Long> {
+
+    @Query("SELECT e FROM SheetsOutboxEvent e WHERE e.status = :status AND e.nextAttemptAt <= :now ORDER BY e.id")
+    List<SheetsOutboxEvent> findDue(@Param("status") SheetsOutboxEvent.Status status,
+                                    @Param("now") LocalDateTime now,
+                                    Pageable pageable);
+
+    // Events for one user are applied in order: a later one waits while an earlier one is pending.
+    boolean existsByUserIdAndStatusAndIdLessThan(Long userId, SheetsOutboxEvent.Status status, Long id);
+
+    long countByStatus(SheetsOutboxEvent.Status status);
+
+    Optional<SheetsOutboxEvent> findFirstByStatusOrderByIdAsc(SheetsOutboxEvent.Status status);
+
+    // Leases a due event to this worker by pushing its next attempt out; 0 means another worker took it.
+    @Transactional
+    @Modifying
+    @Query("UPDATE SheetsOutboxEvent e SET e.nextAttemptAt = :leaseUntil " +
+            "WHERE e.id = :id AND e.status = :status AND e.nextAttemptAt = :expected")
+    int lease(@Param("id") Long id,
+              @Param("status") SheetsOutboxEvent.Status status,
+              @Param("expected") LocalDateTime expected,
+              @Param("leaseUntil") LocalDateTime leaseUntil);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM SheetsOutboxEvent e WHERE e.status = :status AND e.processedAt < :before")
+    int deleteProcessedBefore(@Param("status") SheetsOutboxEvent.Status status, @Param("before") LocalDateTime before);
+}
@@ -2,17 +2,74 @@ package com.superbowl.squares.repository;
 
 import com.superbowl.squares.model.Square;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface SquareRepository extends JpaRepository<Square, Long> {
+    String DIGITS = "(SELECT 0 AS n UNION ALL SELECT 1 UNION ALL SELECT 2 UNION ALL SELECT 3 UNION ALL SELECT 4 " +
+            "UNION ALL SELECT 5 UNION ALL SELECT 6 UNION ALL SELECT 7 UNION ALL SELECT 8 UNION ALL SELECT 9)";
+
     List<Square> findByPoolId(Long poolId);
     List<Square> findByPoolIdAndProfileIdIsNull(Long poolId);
     Optional<Square> findByPoolIdAndRowPositionAndColPosition(Long poolId, Integer rowPosition, Integer colPosition);
     List<Square> findByPoolIdAndRowPositionAndColPosition(Long poolId, int rowPosition, int colPosition);
     long countByPoolIdAndProfileIdIsNotNull(Long poolId);
     void deleteByPoolId(Long poolId);
+
+    // Inserts a pool's full 10x10 grid of unclaimed squares in one statement (rows and columns 0-9
+    // come from a cross join of two digit lists), instead of 100 IDENTITY inserts.
+    @Modifying
+    @Query(value = "INSERT INTO squares (pool_id, row_position, col_position, version) " +
+            "SELECT :poolId, r.n, c.n, 0 FROM " + DIGITS + " r CROSS JOIN " + DIGITS + " c",
+            nativeQuery = true)
+    int insertGrid(@Param("poolId") Long poolId);
+
+    // insertGrid for several freshly created pools at once, looked up by name.
+    @Modifying
+    @Query(value = "INSERT INTO squares (pool_id, row_position, col_position, version) " +
+            "SELECT p.id, r.n, c.n, 0 FROM pools p CROSS JOIN " + DIGITS + " r CROSS JOIN " + DIGITS + " c " +
+            "WHERE p.pool_name IN (:poolNames)",
+            nativeQuery = true)
+    int insertGrids(@Param("poolNames") List<String> poolNames);
+
+    // Claims every listed cell (row * 10 + col) of one pool that is still free; returns how many were claimed.
+    @Modifying
+    @Query(value = "UPDATE squares SET profile_id = :profileId, profile_name = :profileName, claimed_at = :claimedAt, version = version + 1 " +
+            "WHERE pool_id = :poolId AND profile_id IS NULL AND (row_position * 10 + col_position) IN (:cells)",
+            nativeQuery = true)
+    int claimAllIfAvailable(@Param("poolId") Long poolId,
+                            @Param("cells") List<Integer> cells,
+                            @Param("profileId") Long profileId,
+                            @Param("profileName") String profileName,
+                            @Param("claimedAt") LocalDateTime claimedAt);
+
+    // Listed cells (row * 10 + col) of one pool that are still free, locked until the transaction ends
+    // so a following claimAllIfAvailable on exactly these cells claims all of them.
+    @Query(value = "SELECT row_position * 10 + col_position FROM squares " +
+            "WHERE pool_id = :poolId AND profile_id IS NULL AND (row_position * 10 + col_position) IN (:cells) FOR UPDATE",
+            nativeQuery = true)
+    List<Number> lockFreeCells(@Param("poolId") Long poolId, @Param("cells") List<Integer> cells);
+
+    // [pool_id, row * 10 + col] for every square held by the profile.
+    @Query(value = "SELECT pool_id, row_position * 10 + col_position FROM squares WHERE profile_id = :profileId",
+            nativeQuery = true)
+    List<Object[]> findCellsByProfileId(@Param("profileId") Long profileId);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE Square s SET s.profileName = :profileName WHERE s.profile.id = :profileId")
+    int updateProfileNameByProfileId(@Param("profileId") Long profileId, @Param("profileName") String profileName);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE Square s SET s.profile = null, s.profileName = null, s.claimedAt = null WHERE s.profile.id = :profileId")
+    int releaseByProfileId(@Param("profileId") Long profileId);
 }
@@ -2,12 +2,24 @@ package com.superbowl.squares.repository;
 
 import com.superbowl.squares.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByEmail(String email);
     boolean existsByEmail(String email);
+
+    @Query("SELECT u.isAdmin FROM User u WHERE u.email = :email")
+    Optional<Boolean> findIsAdminByEmail(@Param("email") String email);
+
+    @Query("SELECT u.tokenVersion FROM User u WHERE u.id = :id")
+    Optional<Integer> findTokenVersionById(@Param("id") Long id);
+
+    @Query("SELECT u.id, u.tokenVersion FROM User u")
+    List<Object[]> findAllTokenVersions();
 }
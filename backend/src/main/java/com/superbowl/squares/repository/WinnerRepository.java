@@ -12,5 +12,6 @@ public interface WinnerRepository extends JpaRepository<Winner, Long> {
     List<Winner> findByPoolId(Long poolId);
     List<Winner> findByProfileId(Long profileId);
     List<Winner> findByPoolIdAndQuarter(Long poolId, Winner.QuarterType quarter);
+    List<Winner> findByQuarter(Winner.QuarterType quarter);
     Optional<Winner> findBySquareIdAndQuarter(Long squareId, Winner.QuarterType quarter);
 }
@@ -0,0 +1,109 @@
+package com.superbowl.squares.security;
+
+import com.superbowl.squares.exception.TooManyRequestsException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+// Per-IP and per-email token buckets for endpoints that hash passwords (login, signup, email and
+// password changes). Checked before any BCrypt work, so a flood is turned away for the price of a
+// map lookup. Buckets live in memory only; a restart simply starts everyone with a full bucket.
+@Component
+public class AuthThrottle {
+
+    @Value("${security.auth-throttle.ip.capacity:20}")
+    private int ipCapacity;
+
+    @Value("${security.auth-throttle.ip.per-minute:20}")
+    private int ipPerMinute;
+
+    @Value("${security.auth-throttle.email.capacity:5}")
+    private int emailCapacity;
+
+    @Value("${security.auth-throttle.email.per-minute:5}")
+    private int emailPerMinute;
+
+    private final ConcurrentMap<String, Bucket> ipBuckets = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Bucket> emailBuckets = new ConcurrentHashMap<>();
+    private final Counter ipRejected;
+    private final Counter emailRejected;
+
+    public AuthThrottle(MeterRegistry meterRegistry) {
+        this.ipRejected = Counter.builder("security.auth.throttled")
+                .description("Password requests rejected by the per-IP or per-email rate limit")
+                .tag("key", "ip")
+                .register(meterRegistry);
+        this.emailRejected = Counter.builder("security.auth.throttled")
+                .description("Password requests rejected by the per-IP or per-email rate limit")
+                .tag("key", "email")
+                .register(meterRegistry);
+    }
+
+    // Takes one token from the IP's bucket and, when an email is given, one from the email's bucket.
+    public void check(String ip, String email) {
+        long now = System.nanoTime();
+        if (ip != null) {
+            long wait = ipBuckets.computeIfAbsent(ip, k -> new Bucket(ipCapacity, now))
+                    .tryTake(now, ipCapacity, ipPerMinute);
+            if (wait > 0) {
+                ipRejected.increment();
+                throw new TooManyRequestsException("Too many attempts from this address, please wait and try again", wait);
+            }
+        }
+        if (email != null && !email.isBlank()) {
+            String key = email.trim().toLowerCase(Locale.ROOT);
+            long wait = emailBuckets.computeIfAbsent(key, k -> new Bucket(emailCapacity, now))
+                    .tryTake(now, emailCapacity, emailPerMinute);
+            if (wait > 0) {
+                emailRejected.increment();
+                throw new TooManyRequestsException("Too many attempts for this account, please wait and try again", wait);
+            }
+        }
+    }
+
+    // Buckets that have refilled completely carry no state worth keeping.
+    @Scheduled(fixedDelayString = "${security.auth-throttle.cleanup-ms:60000}")
+    public void evictFullBuckets() {
+        long now = System.nanoTime();
+        ipBuckets.values().removeIf(bucket -> bucket.isFull(now, ipCapacity, ipPerMinute));
+        emailBuckets.values().removeIf(bucket -> bucket.isFull(now, emailCapacity, emailPerMinute));
+    }
+
+    private static final class Bucket {
+        private double tokens;
+        private long refilledAt;
+
+        Bucket(int capacity, long now) {
+            this.tokens = capacity;
+            this.refilledAt = now;
+        }
+
+        // Returns 0 if a token was taken, otherwise the seconds until one is available.
+        synchronized long tryTake(long now, int capacity, int perMinute) {
+            refill(now, capacity, perMinute);
+            if (tokens >= 1) {
+                tokens -= 1;
+                return 0;
+            }
+            double secondsPerToken = 60.0 / perMinute;
+            return Math.max(1, (long) Math.ceil((1 - tokens) * secondsPerToken));
+        }
+
+        synchronized boolean isFull(long now, int capacity, int perMinute) {
+            refill(now, capacity, perMinute);
+            return tokens >= capacity;
+        }
+
+        private void refill(long now, int capacity, int perMinute) {
+            double elapsedMinutes = (now - refilledAt) / 60_000_000_000.0;
+            tokens = Math.min(capacity, tokens + elapsedMinutes * perMinute);
+            refilledAt = now;
+        }
+    }
+}
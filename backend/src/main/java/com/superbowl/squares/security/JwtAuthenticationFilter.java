@@ -1,5 +1,6 @@
 package com.superbowl.squares.security;
 
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -7,7 +8,10 @@ import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.lang.NonNull;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
@@ -15,6 +19,8 @@ import org.springframework.util.StringUtils;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
 
 @Component
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
@@ -23,7 +29,10 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     private JwtTokenProvider tokenProvider;
 
     @Autowired
-    private CustomUserDetailsService customUserDetailsService;
+    private PrincipalCache principalCache;
+
+    @Autowired
+    private TokenVersions tokenVersions;
 
     @Override
     protected void doFilterInternal(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response, @NonNull FilterChain filterChain)
@@ -32,18 +41,25 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             String jwt = getJwtFromRequest(request);
             logger.debug("JWT from request: " + jwt);
 
-            if (StringUtils.hasText(jwt) && tokenProvider.validateToken(jwt)) {
-                String email = tokenProvider.getEmailFromToken(jwt);
+            Claims claims = StringUtils.hasText(jwt) ? tokenProvider.parseToken(jwt) : null;
+            if (claims != null) {
+                String email = claims.getSubject();
                 logger.debug("Email from token: " + email);
 
-                UserDetails userDetails = customUserDetailsService.loadUserByUsername(email);
-                logger.debug("UserDetails: username=" + userDetails.getUsername() + ", authorities=" + userDetails.getAuthorities());
+                UserDetails userDetails = claims.get(JwtTokenProvider.CLAIM_USER_ID) != null
+                        ? principalFromClaims(claims)
+                        : principalCache.get(email); // issued before tokens carried their own roles
+                if (userDetails != null) {
+                    logger.debug("UserDetails: username=" + userDetails.getUsername() + ", authorities=" + userDetails.getAuthorities());
 
-                UsernamePasswordAuthenticationToken authentication =
-                        new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
-                authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+                    UsernamePasswordAuthenticationToken authentication =
+                            new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
+                    authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
 
-                SecurityContextHolder.getContext().setAuthentication(authentication);
+                    SecurityContextHolder.getContext().setAuthentication(authentication);
+                } else {
+                    logger.debug("JWT has been revoked. SecurityContext remains anonymous.");
+                }
             } else {
                 logger.debug("JWT is missing or invalid. SecurityContext remains anonymous.");
             }
@@ -54,6 +70,24 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
     }
 
+    // Builds the principal from verified claims alone; null when the token's version has been revoked.
+    private UserDetails principalFromClaims(Claims claims) {
+        Long userId = claims.get(JwtTokenProvider.CLAIM_USER_ID, Long.class);
+        Integer version = claims.get(JwtTokenProvider.CLAIM_TOKEN_VERSION, Integer.class);
+        if (version == null || !tokenVersions.isCurrent(userId, version)) {
+            return null;
+        }
+
+        List<GrantedAuthority> authorities = new ArrayList<>();
+        List<?> roles = claims.get(JwtTokenProvider.CLAIM_ROLES, List.class);
+        if (roles != null) {
+            for (Object role : roles) {
+                authorities.add(new SimpleGrantedAuthority(role.toString()));
+            }
+        }
+        return new User(claims.getSubject(), "", authorities);
+    }
+
     private String getJwtFromRequest(HttpServletRequest request) {
         String bearerToken = request.getHeader("Authorization");
         if (StringUtils.hasText(bearerToken) && bearerToken.startsWith("Bearer ")) {
@@ -1,62 +1,180 @@
 package com.superbowl.squares.security;
 
+import com.superbowl.squares.model.User;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
 import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Base64;
 import java.util.Date;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 @Component
 public class JwtTokenProvider {
 
+    // Claims that let JwtAuthenticationFilter authorize a request without loading the user.
+    public static final String CLAIM_USER_ID = "uid";
+    public static final String CLAIM_ROLES = "roles";
+    public static final String CLAIM_TOKEN_VERSION = "ver";
+
     @Value("${jwt.secret}")
     private String jwtSecret;
 
     @Value("${jwt.expiration}")
     private long jwtExpiration;
 
+    @Value("${jwt.verified-cache.max-size:10000}")
+    private int verifiedCacheMaxSize;
+
+    private volatile SecretKey signingKey;
+    private volatile JwtParser parser;
+
+    // Tokens that have already passed signature verification, until they expire. Keyed by the token's
+    // SHA-256 digest, so the heap never holds the bearer credentials themselves; a hit is still exactly
+    // the token that was verified.
+    private final ConcurrentMap<String, VerifiedToken> verified = new ConcurrentHashMap<>();
+    private final Counter verifiedHits;
+    private final Counter verifiedMisses;
+
+    public JwtTokenProvider(MeterRegistry meterRegistry) {
+        this.verifiedHits = Counter.builder("security.jwt.verified.cache")
+                .description("Bearer tokens resolved from the verified-token cache or by verifying the signature")
+                .tag("result", "hit")
+                .register(meterRegistry);
+        this.verifiedMisses = Counter.builder("security.jwt.verified.cache")
+                .description("Bearer tokens resolved from the verified-token cache or by verifying the signature")
+                .tag("result", "miss")
+                .register(meterRegistry);
+        Gauge.builder("security.jwt.verified.cache.size", verified, Map::size)
+                .description("Verified tokens cached until their expiry")
+                .register(meterRegistry);
+    }
+
     private SecretKey getSigningKey() {
-        byte[] keyBytes = jwtSecret.getBytes(StandardCharsets.UTF_8);
-        return Keys.hmacShaKeyFor(keyBytes);
+        SecretKey key = signingKey;
+        if (key == null) {
+            byte[] keyBytes = jwtSecret.getBytes(StandardCharsets.UTF_8);
+            key = Keys.hmacShaKeyFor(keyBytes);
+            signingKey = key;
+        }
+        return key;
+    }
+
+    private JwtParser getParser() {
+        JwtParser p = parser;
+        if (p == null) {
+            p = Jwts.parser().verifyWith(getSigningKey()).build();
+            parser = p;
+        }
+        return p;
     }
 
-    public String generateToken(Authentication authentication) {
-        String email = authentication.getName();
+    public String generateToken(User user) {
         Date now = new Date();
         Date expiryDate = new Date(now.getTime() + jwtExpiration);
 
+        List<String> roles = new ArrayList<>();
+        if (Boolean.TRUE.equals(user.getIsAdmin())) {
+            roles.add("ROLE_ADMIN");
+        }
+        roles.add("ROLE_USER");
+
         return Jwts.builder()
-            .subject(email)
+            .subject(user.getEmail())
             .issuedAt(now)
             .expiration(expiryDate)
-            .claim("authorities", authentication.getAuthorities())
+            .claim(CLAIM_USER_ID, user.getId())
+            .claim(CLAIM_ROLES, roles)
+            .claim(CLAIM_TOKEN_VERSION, user.getTokenVersion() != null ? user.getTokenVersion() : 0)
             .signWith(getSigningKey(), SignatureAlgorithm.HS512)
             .compact();
     }
 
-    public String getEmailFromToken(String token) {
-        Claims claims = Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
+    // Verifies the token once and returns its claims, or null if it is malformed, forged or expired.
+    // Repeat calls with the same token are served from memory until the token's exp.
+    public Claims parseToken(String token) {
+        if (token == null || token.isEmpty()) {
+            return null;
+        }
 
-        return claims.getSubject();
+        long now = System.currentTimeMillis();
+        String key = digest(token);
+        VerifiedToken cached = verified.get(key);
+        if (cached != null) {
+            if (cached.expiresAt > now) {
+                verifiedHits.increment();
+                return cached.claims;
+            }
+            verified.remove(key, cached);
+            return null;
+        }
+
+        verifiedMisses.increment();
+        Claims claims;
+        try {
+            claims = getParser().parseSignedClaims(token).getPayload();
+        } catch (JwtException | IllegalArgumentException e) {
+            return null;
+        }
+
+        if (claims.getExpiration() != null) {
+            makeRoom(now);
+            verified.put(key, new VerifiedToken(claims, claims.getExpiration().getTime()));
+        }
+        return claims;
+    }
+
+    public String getEmailFromToken(String token) {
+        Claims claims = parseToken(token);
+        return claims != null ? claims.getSubject() : null;
     }
 
     public boolean validateToken(String token) {
+        return parseToken(token) != null;
+    }
+
+    private static String digest(String token) {
         try {
-            Jwts.parser()
-                    .verifyWith(getSigningKey())
-                    .build()
-                    .parseSignedClaims(token);
-            return true;
-        } catch (JwtException | IllegalArgumentException e) {
-            return false;
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getEncoder().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private void makeRoom(long now) {
+        if (verified.size() < verifiedCacheMaxSize) {
+            return;
+        }
+        verified.values().removeIf(entry -> entry.expiresAt <= now);
+        // Still full of live tokens: drop arbitrary ones, they only cost a re-verification.
+        Iterator<String> keys = verified.keySet().iterator();
+        while (verified.size() >= verifiedCacheMaxSize && keys.hasNext()) {
+            keys.next();
+            keys.remove();
+        }
+    }
+
+    private static final class VerifiedToken {
+        final Claims claims;
+        final long expiresAt;
+
+        VerifiedToken(Claims claims, long expiresAt) {
+            this.claims = claims;
+            this.expiresAt = expiresAt;
         }
     }
 }
@@ -0,0 +1,124 @@
+package com.superbowl.squares.security;
+
+import com.superbowl.squares.repository.UserRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+// Principals for JwtAuthenticationFilter, keyed by email.
+// A miss costs one single-column query (the admin flag) instead of loading the user with its eager
+// profiles and payment infos. Entries expire after a TTL and are dropped as soon as an account's
+// email, password or admin flag changes. Login still goes through CustomUserDetailsService.
+@Component
+public class PrincipalCache {
+
+    @Value("${security.principal-cache.ttl-ms:300000}")
+    private long ttlMs;
+
+    @Value("${security.principal-cache.max-size:10000}")
+    private int maxSize;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private final ConcurrentMap<String, Entry> entries = new ConcurrentHashMap<>();
+    private final Counter hits;
+    private final Counter misses;
+
+    public PrincipalCache(MeterRegistry meterRegistry) {
+        this.hits = Counter.builder("security.principal.cache")
+                .description("Principal lookups for authenticated requests")
+                .tag("result", "hit")
+                .register(meterRegistry);
+        this.misses = Counter.builder("security.principal.cache")
+                .description("Principal lookups for authenticated requests")
+                .tag("result", "miss")
+                .register(meterRegistry);
+        Gauge.builder("security.principal.cache.size", entries, Map::size)
+                .description("Cached principals")
+                .register(meterRegistry);
+    }
+
+    public UserDetails get(String email) {
+        long now = System.currentTimeMillis();
+        Entry entry = entries.get(email);
+        if (entry != null && entry.expiresAt > now) {
+            hits.increment();
+            return entry.principal;
+        }
+
+        misses.increment();
+        boolean isAdmin = userRepository.findIsAdminByEmail(email)
+                .orElseThrow(() -> new UsernameNotFoundException("User not found with email: " + email));
+        UserDetails principal = toPrincipal(email, isAdmin);
+        makeRoom(now);
+        entries.put(email, new Entry(principal, now + ttlMs));
+        return principal;
+    }
+
+    // Drops the cached principal now and again after the surrounding transaction commits, so a
+    // request racing the change cannot re-cache the old state.
+    public void invalidate(String email) {
+        if (email == null) {
+            return;
+        }
+        entries.remove(email);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    entries.remove(email);
+                }
+            });
+        }
+    }
+
+    private void makeRoom(long now) {
+        if (entries.size() < maxSize) {
+            return;
+        }
+        entries.values().removeIf(entry -> entry.expiresAt <= now);
+        // Still full of live entries: drop arbitrary ones, they are cheap to reload.
+        Iterator<String> keys = entries.keySet().iterator();
+        while (entries.size() >= maxSize && keys.hasNext()) {
+            keys.next();
+            keys.remove();
+        }
+    }
+
+    private static UserDetails toPrincipal(String email, boolean isAdmin) {
+        List<GrantedAuthority> authorities = new ArrayList<>();
+        if (isAdmin) {
+            authorities.add(new SimpleGrantedAuthority("ROLE_ADMIN"));
+        }
+        authorities.add(new SimpleGrantedAuthority("ROLE_USER"));
+        // The filter never checks passwords, so none is kept in memory.
+        return new org.springframework.security.core.userdetails.User(email, "", authorities);
+    }
+
+    private static final class Entry {
+        final UserDetails principal;
+        final long expiresAt;
+
+        Entry(UserDetails principal, long expiresAt) {
+            this.principal = principal;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.superbowl.squares.security;
+
+import com.superbowl.squares.model.User;
+import com.superbowl.squares.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+// In-memory copy of users.token_version, used to revoke issued JWTs without a DB lookup per request.
+// A token is accepted only while its "ver" claim equals the user's current version; bumping the
+// version (password, email or role change) invalidates every token issued before it. The map is
+// refreshed from the database periodically so changes made on other instances are picked up.
+@Component
+public class TokenVersions {
+
+    private static final Logger logger = LoggerFactory.getLogger(TokenVersions.class);
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private final ConcurrentMap<Long, Integer> versions = new ConcurrentHashMap<>();
+
+    public boolean isCurrent(Long userId, int version) {
+        Integer known = versions.get(userId);
+        if (known == null || version > known) {
+            // New user, or a version bumped on another instance since the last refresh.
+            known = reload(userId);
+        }
+        return known != null && known == version;
+    }
+
+    // Must be called inside the transaction that saves the user; the new version is published after
+    // commit, so a rolled-back change never revokes anything.
+    public void bump(User user) {
+        int next = (user.getTokenVersion() != null ? user.getTokenVersion() : 0) + 1;
+        user.setTokenVersion(next);
+        Long userId = user.getId();
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                versions.merge(userId, next, Math::max);
+            }
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${security.token-version.refresh-ms:30000}")
+    public void refresh() {
+        try {
+            List<Object[]> rows = userRepository.findAllTokenVersions();
+            Set<Long> seen = new HashSet<>();
+            for (Object[] row : rows) {
+                Long userId = ((Number) row[0]).longValue();
+                int version = ((Number) row[1]).intValue();
+                seen.add(userId);
+                // Versions only go up; never let an older read undo a bump published meanwhile.
+                versions.merge(userId, version, Math::max);
+            }
+            versions.keySet().retainAll(seen);
+        } catch (Exception e) {
+            logger.warn("Failed to refresh token versions: {}", e.getMessage());
+        }
+    }
+
+    private Integer reload(Long userId) {
+        Optional<Integer> version = userRepository.findTokenVersionById(userId);
+        if (version.isEmpty()) {
+            versions.remove(userId);
+            return null;
+        }
+        return versions.merge(userId, version.get(), Math::max);
+    }
+}
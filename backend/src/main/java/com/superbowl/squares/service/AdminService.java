@@ -3,6 +3,7 @@ package com.superbowl.squares.service;
 import com.superbowl.squares.dto.PaymentInfoRequest;
 import com.superbowl.squares.dto.ProfileRequest;
 import com.superbowl.squares.dto.UpdateUserRequest;
+import com.superbowl.squares.google.SheetsOutbox;
 import com.superbowl.squares.model.PaymentInfo;
 import com.superbowl.squares.model.Profile;
 import com.superbowl.squares.model.User;
@@ -11,9 +12,12 @@ import com.superbowl.squares.repository.PaymentInfoRepository;
 import com.superbowl.squares.repository.ProfileRepository;
 import com.superbowl.squares.repository.UserRepository;
 import com.superbowl.squares.repository.WinnerRepository;
+import com.superbowl.squares.security.PrincipalCache;
+import com.superbowl.squares.security.TokenVersions;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.StringUtils;
 
 import java.util.HashMap;
@@ -52,17 +56,30 @@ public class AdminService {
     private PasswordEncoder passwordEncoder;
 
     @Autowired
-    private com.superbowl.squares.google.GoogleSheetsService googleSheetsService;
+    private SheetsOutbox sheetsOutbox;
+
+    @Autowired
+    private SquareService squareService;
+
+    @Autowired
+    private PrincipalCache principalCache;
+
+    @Autowired
+    private TokenVersions tokenVersions;
 
     public List<User> getAllUsers() {
         return userRepository.findAll();
     }
 
     @SuppressWarnings("null")
+    @Transactional
     public User makeUserAdmin(Long userId) {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new RuntimeException("User not found"));
         user.setIsAdmin(true);
+        // Outstanding tokens still say ROLE_USER only; make the user sign in again to pick up the role.
+        tokenVersions.bump(user);
+        principalCache.invalidate(user.getEmail());
         return userRepository.save(user);
     }
 
@@ -73,6 +90,7 @@ public class AdminService {
     }
 
     @SuppressWarnings("null")
+    @Transactional
     public User updateUser(Long userId, UpdateUserRequest request) {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new RuntimeException("User not found"));
@@ -89,67 +107,22 @@ public class AdminService {
             user.setPasswordHash(passwordEncoder.encode(request.getPassword()));
         }
 
+        if (emailChanged || StringUtils.hasText(request.getPassword())) {
+            tokenVersions.bump(user);
+        }
+
         User updatedUser = userRepository.save(user);
+        principalCache.invalidate(oldEmail);
+        principalCache.invalidate(updatedUser.getEmail());
 
-        // --- Google Sheets Owners sync ---
-        try {
-            // Constants (should match AuthService)
-            final String SPREADSHEET_ID = "1zXue8QE0GBV5GRWv7k5JSR67yRjMf3o7Cj9egY4Fguk";
-            final String OWNERS_SHEET = "Owners";
-
-            // Read all rows from Owners sheet
-            java.util.List<java.util.List<Object>> rows = googleSheetsService.readSheet(SPREADSHEET_ID, OWNERS_SHEET, "A2:N");
-            int rowIndex = -1;
-            for (int i = 0; i < rows.size(); i++) {
-                Object emailCell = rows.get(i).size() > 0 ? rows.get(i).get(0) : null;
-                if (emailCell != null && (
-                        (emailChanged && emailCell.toString().equalsIgnoreCase(oldEmail)) ||
-                        (!emailChanged && emailCell.toString().equalsIgnoreCase(updatedUser.getEmail()))
-                    )) {
-                    rowIndex = i;
-                    break;
-                }
-            }
-            if (rowIndex != -1) {
-                // Prepare new row data (A=email, B=password, C:L=profiles, M=payment method, N=identifier)
-                java.util.List<String> profileNames = new java.util.ArrayList<>();
-                if (updatedUser.getProfiles() != null) {
-                    for (int i = 0; i < updatedUser.getProfiles().size(); i++) {
-                        profileNames.add(updatedUser.getProfiles().get(i).getFullName());
-                    }
-                }
-                while (profileNames.size() < 10) profileNames.add("");
-                String paymentMethod = "";
-                String identifier = "";
-                if (updatedUser.getPaymentInfos() != null && !updatedUser.getPaymentInfos().isEmpty()) {
-                    var paymentInfo = updatedUser.getPaymentInfos().get(0);
-                    paymentMethod = paymentInfo.getPaymentMethod() != null ? paymentInfo.getPaymentMethod().toString() : "";
-                    identifier = paymentInfo.getAccountIdentifier() != null ? paymentInfo.getAccountIdentifier() : "";
-                }
-                java.util.List<Object> newRow = new java.util.ArrayList<>();
-                newRow.add(updatedUser.getEmail());
-                // Preserve password from sheet if present
-                String sheetPassword = rows.get(rowIndex).size() > 1 ? rows.get(rowIndex).get(1).toString() : "";
-                newRow.add(sheetPassword);
-                newRow.addAll(profileNames);
-                newRow.add(paymentMethod);
-                newRow.add(identifier);
-                java.util.List<java.util.List<Object>> values = java.util.Collections.singletonList(newRow);
-                // Google Sheets rows are 1-based, header is row 1, so A2 is rowIndex+2
-                String range = "A" + (rowIndex + 2) + ":N" + (rowIndex + 2);
-                googleSheetsService.updateSheet(SPREADSHEET_ID, OWNERS_SHEET, range, values);
-            } else {
-                // If not found, optionally append (or skip)
-                System.err.println("[WARN] Could not find Owners sheet row for user " + oldEmail + " (emailChanged=" + emailChanged + ")");
-            }
-        } catch (Exception e) {
-            System.err.println("[WARN] Failed to update Owners sheet: " + e.getMessage());
-        }
+        // Owners sheet row is rewritten after commit by the sheets outbox worker.
+        sheetsOutbox.ownerChanged(updatedUser.getId(), emailChanged ? oldEmail : null, null);
 
         return updatedUser;
     }
 
     @SuppressWarnings("null")
+    @Transactional
     public Profile createProfile(Long userId, ProfileRequest request) {
         User user = userRepository.findById(userId)
             .orElseThrow(() -> new RuntimeException("User not found"));
@@ -162,67 +135,14 @@ public class AdminService {
         profile.setProfileNumber(request.getProfileNumber());
         Profile savedProfile = profileRepository.save(profile);
 
-        // --- Google Sheets Owners sync ---
-        try {
-            // Constants (should match AuthService)
-            final String SPREADSHEET_ID = "1zXue8QE0GBV5GRWv7k5JSR67yRjMf3o7Cj9egY4Fguk";
-            final String OWNERS_SHEET = "Owners";
-
-            // Reload user and profiles to get up-to-date list
-            User freshUser = userRepository.findById(userId)
-                .orElseThrow(() -> new RuntimeException("User not found after profile create"));
-            java.util.List<Profile> freshProfiles = profileRepository.findByUserId(userId);
-            freshUser.setProfiles(freshProfiles);
-
-            // Read all rows from Owners sheet
-            java.util.List<java.util.List<Object>> rows = googleSheetsService.readSheet(SPREADSHEET_ID, OWNERS_SHEET, "A2:N");
-            int rowIndex = -1;
-            for (int i = 0; i < rows.size(); i++) {
-                Object emailCell = rows.get(i).size() > 0 ? rows.get(i).get(0) : null;
-                if (emailCell != null && emailCell.toString().equalsIgnoreCase(freshUser.getEmail())) {
-                    rowIndex = i;
-                    break;
-                }
-            }
-            if (rowIndex != -1) {
-                // Prepare new row data (A=email, B=password, C:L=profiles, M=payment method, N=identifier)
-                java.util.List<String> profileNames = new java.util.ArrayList<>();
-                if (freshUser.getProfiles() != null) {
-                    for (int i = 0; i < freshUser.getProfiles().size(); i++) {
-                        profileNames.add(freshUser.getProfiles().get(i).getFullName());
-                    }
-                }
-                while (profileNames.size() < 10) profileNames.add("");
-                String paymentMethod = "";
-                String identifier = "";
-                if (freshUser.getPaymentInfos() != null && !freshUser.getPaymentInfos().isEmpty()) {
-                    var paymentInfo = freshUser.getPaymentInfos().get(0);
-                    paymentMethod = paymentInfo.getPaymentMethod() != null ? paymentInfo.getPaymentMethod().toString() : "";
-                    identifier = paymentInfo.getAccountIdentifier() != null ? paymentInfo.getAccountIdentifier() : "";
-                }
-                java.util.List<Object> newRow = new java.util.ArrayList<>();
-                newRow.add(freshUser.getEmail());
-                // Preserve password from sheet if present
-                String sheetPassword = rows.get(rowIndex).size() > 1 ? rows.get(rowIndex).get(1).toString() : "";
-                newRow.add(sheetPassword);
-                newRow.addAll(profileNames);
-                newRow.add(paymentMethod);
-                newRow.add(identifier);
-                java.util.List<java.util.List<Object>> values = java.util.Collections.singletonList(newRow);
-                // Google Sheets rows are 1-based, header is row 1, so A2 is rowIndex+2
-                String range = "A" + (rowIndex + 2) + ":N" + (rowIndex + 2);
-                googleSheetsService.updateSheet(SPREADSHEET_ID, OWNERS_SHEET, range, values);
-            } else {
-                System.err.println("[WARN] Could not find Owners sheet row for user " + freshUser.getEmail() + " during profile create");
-            }
-        } catch (Exception e) {
-            System.err.println("[WARN] Failed to update Owners sheet after profile create: " + e.getMessage());
-        }
+        // Owners sheet row is rewritten after commit by the sheets outbox worker.
+        sheetsOutbox.ownerChanged(userId);
 
         return savedProfile;
     }
 
     @SuppressWarnings("null")
+    @Transactional
     public Profile updateProfile(Long profileId, ProfileRequest request) {
         Profile profile = profileRepository.findById(profileId)
             .orElseThrow(() -> new RuntimeException("Profile not found"));
@@ -231,131 +151,35 @@ public class AdminService {
             profileRepository.existsByFullNameIgnoreCase(request.getFullName())) {
             throw new com.superbowl.squares.exception.DuplicateProfileNameException("A profile with this full name already exists");
         }
+        boolean renamed = !profile.getFullName().equals(request.getFullName());
         profile.setFullName(request.getFullName());
         profile.setProfileNumber(request.getProfileNumber());
         Profile updatedProfile = profileRepository.save(profile);
-
-        // --- Google Sheets Owners sync ---
-        try {
-            // Constants (should match AuthService)
-            final String SPREADSHEET_ID = "1zXue8QE0GBV5GRWv7k5JSR67yRjMf3o7Cj9egY4Fguk";
-            final String OWNERS_SHEET = "Owners";
-
-            // Get the user for this profile
-            User user = updatedProfile.getUser();
-            // Read all rows from Owners sheet
-            java.util.List<java.util.List<Object>> rows = googleSheetsService.readSheet(SPREADSHEET_ID, OWNERS_SHEET, "A2:N");
-            int rowIndex = -1;
-            for (int i = 0; i < rows.size(); i++) {
-                Object emailCell = rows.get(i).size() > 0 ? rows.get(i).get(0) : null;
-                if (emailCell != null && emailCell.toString().equalsIgnoreCase(user.getEmail())) {
-                    rowIndex = i;
-                    break;
-                }
-            }
-            if (rowIndex != -1) {
-                // Prepare new row data (A=email, B=password, C:L=profiles, M=payment method, N=identifier)
-                java.util.List<String> profileNames = new java.util.ArrayList<>();
-                if (user.getProfiles() != null) {
-                    for (int i = 0; i < user.getProfiles().size(); i++) {
-                        profileNames.add(user.getProfiles().get(i).getFullName());
-                    }
-                }
-                while (profileNames.size() < 10) profileNames.add("");
-                String paymentMethod = "";
-                String identifier = "";
-                if (user.getPaymentInfos() != null && !user.getPaymentInfos().isEmpty()) {
-                    var paymentInfo = user.getPaymentInfos().get(0);
-                    paymentMethod = paymentInfo.getPaymentMethod() != null ? paymentInfo.getPaymentMethod().toString() : "";
-                    identifier = paymentInfo.getAccountIdentifier() != null ? paymentInfo.getAccountIdentifier() : "";
-                }
-                java.util.List<Object> newRow = new java.util.ArrayList<>();
-                newRow.add(user.getEmail());
-                // Preserve password from sheet if present
-                String sheetPassword = rows.get(rowIndex).size() > 1 ? rows.get(rowIndex).get(1).toString() : "";
-                newRow.add(sheetPassword);
-                newRow.addAll(profileNames);
-                newRow.add(paymentMethod);
-                newRow.add(identifier);
-                java.util.List<java.util.List<Object>> values = java.util.Collections.singletonList(newRow);
-                // Google Sheets rows are 1-based, header is row 1, so A2 is rowIndex+2
-                String range = "A" + (rowIndex + 2) + ":N" + (rowIndex + 2);
-                googleSheetsService.updateSheet(SPREADSHEET_ID, OWNERS_SHEET, range, values);
-            } else {
-                System.err.println("[WARN] Could not find Owners sheet row for user " + user.getEmail() + " during profile update");
-            }
-        } catch (Exception e) {
-            System.err.println("[WARN] Failed to update Owners sheet after profile update: " + e.getMessage());
+        if (renamed) {
+            squareService.renameProfile(profileId, updatedProfile.getFullName());
         }
 
+        // Owners sheet row is rewritten after commit by the sheets outbox worker.
+        sheetsOutbox.ownerChanged(updatedProfile.getUser().getId());
+
         return updatedProfile;
     }
 
     @SuppressWarnings("null")
+    @Transactional
     public void deleteProfile(Long profileId) {
         // Find the profile and user before deleting
         Profile profile = profileRepository.findById(profileId)
             .orElseThrow(() -> new RuntimeException("Profile not found"));
         User user = profile.getUser();
         Long userId = user.getId();
+        squareService.releaseProfile(profileId);
+        // Drop it from the managed user's collection too, or the cascade would re-save it on flush.
+        user.getProfiles().removeIf(p -> p != null && profileId.equals(p.getId()));
         profileRepository.deleteById(profileId);
 
-        // --- Google Sheets Owners sync ---
-        try {
-            // Constants (should match AuthService)
-            final String SPREADSHEET_ID = "1zXue8QE0GBV5GRWv7k5JSR67yRjMf3o7Cj9egY4Fguk";
-            final String OWNERS_SHEET = "Owners";
-
-            // Reload user and profiles to get up-to-date list
-            User freshUser = userRepository.findById(userId)
-                .orElseThrow(() -> new RuntimeException("User not found after profile delete"));
-            java.util.List<Profile> freshProfiles = profileRepository.findByUserId(userId);
-            freshUser.setProfiles(freshProfiles);
-
-            // Read all rows from Owners sheet
-            java.util.List<java.util.List<Object>> rows = googleSheetsService.readSheet(SPREADSHEET_ID, OWNERS_SHEET, "A2:N");
-            int rowIndex = -1;
-            for (int i = 0; i < rows.size(); i++) {
-                Object emailCell = rows.get(i).size() > 0 ? rows.get(i).get(0) : null;
-                if (emailCell != null && emailCell.toString().equalsIgnoreCase(freshUser.getEmail())) {
-                    rowIndex = i;
-                    break;
-                }
-            }
-            if (rowIndex != -1) {
-                // Prepare new row data (A=email, B=password, C:L=profiles, M=payment method, N=identifier)
-                java.util.List<String> profileNames = new java.util.ArrayList<>();
-                if (freshUser.getProfiles() != null) {
-                    for (int i = 0; i < freshUser.getProfiles().size(); i++) {
-                        profileNames.add(freshUser.getProfiles().get(i).getFullName());
-                    }
-                }
-                while (profileNames.size() < 10) profileNames.add("");
-                String paymentMethod = "";
-                String identifier = "";
-                if (freshUser.getPaymentInfos() != null && !freshUser.getPaymentInfos().isEmpty()) {
-                    var paymentInfo = freshUser.getPaymentInfos().get(0);
-                    paymentMethod = paymentInfo.getPaymentMethod() != null ? paymentInfo.getPaymentMethod().toString() : "";
-                    identifier = paymentInfo.getAccountIdentifier() != null ? paymentInfo.getAccountIdentifier() : "";
-                }
-                java.util.List<Object> newRow = new java.util.ArrayList<>();
-                newRow.add(freshUser.getEmail());
-                // Preserve password from sheet if present
-                String sheetPassword = rows.get(rowIndex).size() > 1 ? rows.get(rowIndex).get(1).toString() : "";
-                newRow.add(sheetPassword);
-                newRow.addAll(profileNames);
-                newRow.add(paymentMethod);
-                newRow.add(identifier);
-                java.util.List<java.util.List<Object>> values = java.util.Collections.singletonList(newRow);
-                // Google Sheets rows are 1-based, header is row 1, so A2 is rowIndex+2
-                String range = "A" + (rowIndex + 2) + ":N" + (rowIndex + 2);
-                googleSheetsService.updateSheet(SPREADSHEET_ID, OWNERS_SHEET, range, values);
-            } else {
-                System.err.println("[WARN] Could not find Owners sheet row for user " + freshUser.getEmail() + " during profile delete");
-            }
-        } catch (Exception e) {
-            System.err.println("[WARN] Failed to update Owners sheet after profile delete: " + e.getMessage());
-        }
+        // Owners sheet row is rewritten after commit by the sheets outbox worker.
+        sheetsOutbox.ownerChanged(userId);
     }
 
     @SuppressWarnings("null")
@@ -3,6 +3,7 @@ package com.superbowl.squares.service;
 import com.superbowl.squares.dto.AuthResponse;
 import com.superbowl.squares.dto.LoginRequest;
 import com.superbowl.squares.dto.SignupRequest;
+import com.superbowl.squares.google.SheetsOutbox;
 import com.superbowl.squares.model.PaymentInfo;
 import com.superbowl.squares.model.Profile;
 import com.superbowl.squares.model.User;
@@ -32,11 +33,7 @@ public class AuthService {
     private static final Logger logger = LoggerFactory.getLogger(AuthService.class);
 
     @Autowired
-    private com.superbowl.squares.google.GoogleSheetsService googleSheetsService;
-
-    // Spreadsheet and sheet name constants (update as needed)
-    private static final String SPREADSHEET_ID = "1zXue8QE0GBV5GRWv7k5JSR67yRjMf3o7Cj9egY4Fguk";
-    private static final String OWNERS_SHEET = "Owners";
+    private SheetsOutbox sheetsOutbox;
 
     @Autowired
     private UserRepository userRepository;
@@ -116,31 +113,16 @@ public class AuthService {
         );
 
         SecurityContextHolder.getContext().setAuthentication(authentication);
-        String token = tokenProvider.generateToken(authentication);
+        String token = tokenProvider.generateToken(user);
         logger.debug("JWT generated for signup");
 
         List<AuthResponse.ProfileDTO> profileDTOs = profiles.stream()
                 .map(p -> new AuthResponse.ProfileDTO(p.getId(), p.getFullName(), p.getProfileNumber()))
                 .collect(Collectors.toList());
 
-        // Write to Owners sheet in Google Sheets
-        try {
-            List<String> profileNames = request.getProfiles().stream().map(SignupRequest.ProfileDTO::getFullName).collect(Collectors.toList());
-            String paymentMethod = request.getPaymentInfo().getPaymentMethod();
-            String identifier = request.getPaymentInfo().getAccountIdentifier();
-            googleSheetsService.appendOwnerRow(
-                SPREADSHEET_ID,
-                OWNERS_SHEET,
-                request.getEmail(),
-                request.getPassword(), // Storing password in sheet as requested (not recommended for production)
-                profileNames,
-                paymentMethod,
-                identifier
-            );
-        } catch (Exception e) {
-            // Log but do not block signup
-            logger.warn("Failed to update Owners sheet during signup: {}", e.getMessage());
-        }
+        // Owners sheet row is written after commit by the sheets outbox worker.
+        // Storing password in sheet as requested (not recommended for production)
+        sheetsOutbox.ownerChanged(user.getId(), null, request.getPassword());
         return new AuthResponse(token, user.getEmail(), user.getIsAdmin(), profileDTOs);
     }
 
@@ -152,12 +134,13 @@ public class AuthService {
         );
 
         SecurityContextHolder.getContext().setAuthentication(authentication);
-        String token = tokenProvider.generateToken(authentication);
-        logger.debug("JWT generated for login");
 
         User user = userRepository.findByEmail(request.getEmail())
                 .orElseThrow(() -> new RuntimeException("User not found"));
 
+        String token = tokenProvider.generateToken(user);
+        logger.debug("JWT generated for login");
+
         List<AuthResponse.ProfileDTO> profileDTOs = user.getProfiles().stream()
                 .map(p -> new AuthResponse.ProfileDTO(p.getId(), p.getFullName(), p.getProfileNumber()))
                 .collect(Collectors.toList());
@@ -1,11 +1,12 @@
 package com.superbowl.squares.service;
 
+import com.superbowl.squares.dto.ScoreUpdateResponse;
 import com.superbowl.squares.dto.UpdateScoreRequest;
 import com.superbowl.squares.model.GameScore;
 import com.superbowl.squares.repository.GameScoreRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.util.List;
 
@@ -15,6 +16,12 @@ public class GameScoreService {
     @Autowired
     private GameScoreRepository gameScoreRepository;
 
+    @Autowired
+    private WinnerService winnerService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
     public List<GameScore> getAllScores() {
         return gameScoreRepository.findAll();
     }
@@ -24,8 +31,9 @@ public class GameScoreService {
                 .orElseThrow(() -> new RuntimeException("Score not found"));
     }
 
-    @Transactional
-    public GameScore updateScore(UpdateScoreRequest request) {
+    // The score and its winners commit together; pools that couldn't be scored are listed in the response.
+    // The pools' digits are read from the sheet first, so no transaction is held open during that call.
+    public ScoreUpdateResponse updateScore(UpdateScoreRequest request) {
         GameScore.Quarter quarter;
         try {
             quarter = GameScore.Quarter.valueOf(request.getQuarter());
@@ -33,6 +41,11 @@ public class GameScoreService {
             throw new RuntimeException("Invalid quarter: " + request.getQuarter());
         }
 
+        WinnerService.Digits digits = quarter != GameScore.Quarter.Q4 ? winnerService.currentDigits() : null;
+        return transactionTemplate.execute(status -> saveScore(request, quarter, digits));
+    }
+
+    private ScoreUpdateResponse saveScore(UpdateScoreRequest request, GameScore.Quarter quarter, WinnerService.Digits digits) {
         GameScore gameScore = gameScoreRepository.findByGameNameAndQuarter(request.getGameName(), quarter)
                 .orElse(new GameScore());
 
@@ -41,6 +54,7 @@ public class GameScoreService {
         gameScore.setAfcScore(request.getAfcScore());
         gameScore.setNfcScore(request.getNfcScore());
 
-        return gameScoreRepository.save(gameScore);
+        GameScore saved = gameScoreRepository.save(gameScore);
+        return winnerService.scoreUpdated(saved, digits);
     }
 }
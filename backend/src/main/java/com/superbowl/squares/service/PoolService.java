@@ -1,15 +1,21 @@
 package com.superbowl.squares.service;
 
 import com.superbowl.squares.dto.CreatePoolRequest;
+import com.superbowl.squares.google.GridSheetWriteBehind;
+import com.superbowl.squares.grid.ClaimSequencer;
+import com.superbowl.squares.grid.GridReadModel;
 import com.superbowl.squares.model.Pool;
-import com.superbowl.squares.model.Square;
 import com.superbowl.squares.repository.PoolRepository;
 import com.superbowl.squares.repository.SquareRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 @Service
 public class PoolService {
@@ -20,11 +26,25 @@ public class PoolService {
     @Autowired
     private SquareRepository squareRepository;
 
+    @Autowired
+    private GridReadModel gridReadModel;
+
+    @Autowired
+    private GridSheetWriteBehind gridSheetWriteBehind;
+
+    @Autowired
+    private ClaimSequencer claimSequencer;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
     @Transactional
     public Pool setPoolLocked(Long poolId, boolean locked) {
         Pool pool = getPoolById(poolId);
         pool.setIsLocked(locked);
-        return poolRepository.save(pool);
+        Pool saved = poolRepository.save(pool);
+        gridReadModel.lockChanged(poolId, locked);
+        return saved;
     }
 
     public List<Pool> getActivePools() {
@@ -49,18 +69,67 @@ public class PoolService {
         pool.setIsActive(true);
 
         pool = poolRepository.save(pool);
+        squareRepository.insertGrid(pool.getId());
+
+        return pool;
+    }
 
-        for (int row = 0; row < 10; row++) {
-            for (int col = 0; col < 10; col++) {
-                Square square = new Square();
-                square.setPool(pool);
-                square.setRowPosition(row);
-                square.setColPosition(col);
-                squareRepository.save(square);
-            }
+    // Creates several pools in one transaction: one multi-row INSERT for the pools and one
+    // INSERT ... SELECT for all of their squares.
+    @Transactional
+    public List<Pool> createPools(List<CreatePoolRequest> requests) {
+        List<String> poolNames = requests.stream().map(CreatePoolRequest::getPoolName).toList();
+        checkPoolNamesAvailable(poolNames);
+
+        StringBuilder sql = new StringBuilder(
+                "INSERT INTO pools (pool_name, bet_amount, is_active, is_locked, created_at, updated_at) VALUES ");
+        List<Object> args = new ArrayList<>(requests.size() * 2);
+        for (int i = 0; i < requests.size(); i++) {
+            sql.append(i == 0 ? "" : ", ").append("(?, ?, TRUE, FALSE, NOW(), NOW())");
+            args.add(requests.get(i).getPoolName());
+            args.add(requests.get(i).getBetAmount());
         }
+        jdbcTemplate.update(sql.toString(), args.toArray());
 
-        return pool;
+        return insertGridsAndLoad(poolNames);
+    }
+
+    // Copies an existing pool's settings into new pools (squares start unclaimed and unlocked),
+    // as one INSERT ... SELECT for the pools and one for their squares.
+    @Transactional
+    public List<Pool> clonePool(Long sourcePoolId, List<String> poolNames) {
+        getPoolById(sourcePoolId);
+        checkPoolNamesAvailable(poolNames);
+
+        StringBuilder names = new StringBuilder();
+        for (int i = 0; i < poolNames.size(); i++) {
+            names.append(i == 0 ? "SELECT ? AS pool_name" : " UNION ALL SELECT ?");
+        }
+        List<Object> args = new ArrayList<>(poolNames);
+        args.add(sourcePoolId);
+        jdbcTemplate.update(
+                "INSERT INTO pools (pool_name, bet_amount, is_active, is_locked, created_at, updated_at) " +
+                "SELECT n.pool_name, p.bet_amount, p.is_active, FALSE, NOW(), NOW() " +
+                "FROM pools p CROSS JOIN (" + names + ") n WHERE p.id = ?",
+                args.toArray());
+
+        return insertGridsAndLoad(poolNames);
+    }
+
+    private void checkPoolNamesAvailable(List<String> poolNames) {
+        Set<String> unique = new HashSet<>(poolNames);
+        if (unique.size() != poolNames.size()) {
+            throw new RuntimeException("Pool names must be unique");
+        }
+        List<Pool> existing = poolRepository.findByPoolNameIn(unique);
+        if (!existing.isEmpty()) {
+            throw new RuntimeException("Pool with this name already exists: " + existing.get(0).getPoolName());
+        }
+    }
+
+    private List<Pool> insertGridsAndLoad(List<String> poolNames) {
+        squareRepository.insertGrids(poolNames);
+        return poolRepository.findByPoolNameIn(poolNames);
     }
 
     public List<Pool> getAllPools() {
@@ -79,6 +148,7 @@ public class PoolService {
         Pool pool = getPoolById(poolId);
         pool.setPoolName(request.getPoolName());
         pool.setBetAmount(request.getBetAmount());
+        gridSheetWriteBehind.poolChanged(poolId);
         return poolRepository.save(pool);
     }
 
@@ -87,5 +157,8 @@ public class PoolService {
         Pool pool = getPoolById(poolId);
         squareRepository.deleteByPoolId(pool.getId());
         poolRepository.delete(pool);
+        gridReadModel.evict(poolId);
+        gridSheetWriteBehind.poolChanged(poolId);
+        claimSequencer.poolDeleted(poolId);
     }
 }
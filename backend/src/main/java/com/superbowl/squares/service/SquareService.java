@@ -1,6 +1,17 @@
 package com.superbowl.squares.service;
 
+import com.superbowl.squares.dto.BatchClaimRequest;
+import com.superbowl.squares.dto.BatchClaimResponse;
 import com.superbowl.squares.dto.ClaimSquareRequest;
+import com.superbowl.squares.dto.GridChangesResponse;
+import com.superbowl.squares.dto.GridSnapshotResponse;
+import com.superbowl.squares.exception.SquareAlreadyClaimedException;
+import com.superbowl.squares.google.GridSheetWriteBehind;
+import com.superbowl.squares.grid.ClaimCommand;
+import com.superbowl.squares.grid.ClaimSequencer;
+import com.superbowl.squares.grid.GridChanges;
+import com.superbowl.squares.grid.GridReadModel;
+import com.superbowl.squares.grid.GridSnapshot;
 import com.superbowl.squares.model.Profile;
 import com.superbowl.squares.model.Square;
 import com.superbowl.squares.model.User;
@@ -8,12 +19,21 @@ import com.superbowl.squares.repository.ProfileRepository;
 import com.superbowl.squares.repository.SquareRepository;
 import com.superbowl.squares.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 @Service
 public class SquareService {
@@ -27,45 +47,180 @@ public class SquareService {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private GridReadModel gridReadModel;
+
+    @Autowired
+    private ClaimSequencer claimSequencer;
+
+    @Autowired
+    private GridSheetWriteBehind gridSheetWriteBehind;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    // Served from the in-memory grid; the database is only hit the first time a pool is read.
     public List<Square> getSquaresByPool(Long poolId) {
-        return squareRepository.findByPoolId(poolId);
+        return gridReadModel.getSnapshot(poolId).toSquares();
     }
 
-    @Transactional
-    @SuppressWarnings("null")
+    public GridSnapshot getGridSnapshot(Long poolId) {
+        return gridReadModel.getSnapshot(poolId);
+    }
+
+    public GridChangesResponse getChangesSince(Long poolId, long sinceVersion) {
+        GridChanges changes = gridReadModel.getChangesSince(poolId, sinceVersion);
+        GridSnapshot snapshot = changes.getSnapshot();
+        if (changes.isFullSnapshot()) {
+            return new GridChangesResponse(poolId, snapshot.getVersion(), null, toSnapshotResponse(snapshot));
+        }
+        return new GridChangesResponse(poolId, snapshot.getVersion(), changes.getDeltas(), null);
+    }
+
+    public GridSnapshotResponse toSnapshotResponse(GridSnapshot snapshot) {
+        List<GridSnapshotResponse.ProfileEntry> profiles = new ArrayList<>();
+        Map<Long, Integer> profileIndex = new HashMap<>();
+        int[] cells = new int[GridSnapshot.CELL_COUNT];
+        for (int row = 0; row < GridSnapshot.SIZE; row++) {
+            for (int col = 0; col < GridSnapshot.SIZE; col++) {
+                GridSnapshot.Cell cell = snapshot.getCell(row, col);
+                int slot = -1;
+                if (cell != null && cell.isClaimed()) {
+                    slot = profileIndex.computeIfAbsent(cell.getProfileId(), id -> {
+                        profiles.add(new GridSnapshotResponse.ProfileEntry(id, cell.getProfileName()));
+                        return profiles.size() - 1;
+                    });
+                }
+                cells[row * GridSnapshot.SIZE + col] = slot;
+            }
+        }
+        return new GridSnapshotResponse(snapshot.getPoolId(), snapshot.getVersion(), profiles, cells);
+    }
+
+    // Claims go through the pool's single writer (ClaimSequencer): a square that is already taken is
+    // rejected from memory, and the rest are written in micro-batches of conditional UPDATEs, so
+    // contended claims resolve without lock waits and a lost race maps to a 409.
     public Square claimSquare(ClaimSquareRequest request) {
+        Long poolId = request.getPoolId();
+        int row = request.getRowPosition();
+        int col = request.getColPosition();
+        GridSnapshot.Cell cell = gridReadModel.getSnapshot(poolId).getCell(row, col);
+        if (cell == null) {
+            throw new RuntimeException("Square not found");
+        }
+        if (cell.isClaimed()) {
+            throw new SquareAlreadyClaimedException("Square is already claimed");
+        }
 
-        String email = SecurityContextHolder.getContext().getAuthentication().getName();
-        User user = userRepository.findByEmail(email)
-            .orElseThrow(() -> new RuntimeException("User not found"));
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        String profileName = findClaimableProfileName(authentication, request.getProfileId());
+        return claimSequencer.claim(poolId, new ClaimCommand(cell.getSquareId(), row, col, request.getProfileId(), profileName));
+    }
 
-        Profile profile = profileRepository.findById(request.getProfileId())
-            .orElseThrow(() -> new RuntimeException("Profile not found"));
+    // Claims several squares of one pool for one profile in a single transaction: one ownership lookup,
+    // one locking SELECT of the cells still free and one set-based UPDATE of exactly those, however many
+    // squares are requested.
+    public BatchClaimResponse claimSquares(BatchClaimRequest request) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        String profileName = findClaimableProfileName(authentication, request.getProfileId());
+        Long poolId = request.getPoolId();
 
-        // Allow admins to assign any profile, but regular users can only assign their own
-        boolean isAdmin = user.getIsAdmin() != null && user.getIsAdmin();
-        if (!isAdmin && !profile.getUser().getId().equals(user.getId())) {
-            throw new RuntimeException("Profile does not belong to user");
+        Set<Integer> requested = new LinkedHashSet<>();
+        for (BatchClaimRequest.SquarePosition position : request.getSquares()) {
+            requested.add(position.getRowPosition() * GridSnapshot.SIZE + position.getColPosition());
+        }
+
+        GridSnapshot snapshot = gridReadModel.getSnapshot(poolId);
+        for (int cell : requested) {
+            if (snapshot.getCell(cell / GridSnapshot.SIZE, cell % GridSnapshot.SIZE) == null) {
+                throw new RuntimeException("Square not found");
+            }
         }
 
-        Square square = squareRepository.findByPoolIdAndRowPositionAndColPosition(
-                        request.getPoolId(), request.getRowPosition(), request.getColPosition())
-                .orElseThrow(() -> new RuntimeException("Square not found"));
+        List<Integer> cells = new ArrayList<>(requested);
+        return claimSequencer.run(poolId, () -> transactionTemplate.execute(status -> {
+            BatchClaimResponse response = writeBatchClaim(request, profileName, cells);
+            if (response.isRolledBack()) {
+                status.setRollbackOnly();
+            }
+            return response;
+        }));
+    }
+
+    private BatchClaimResponse writeBatchClaim(BatchClaimRequest request, String profileName, List<Integer> cells) {
+        Long poolId = request.getPoolId();
+        LocalDateTime claimedAt = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
 
-        if (square.getProfile() != null) {
-            throw new RuntimeException("Square is already claimed");
+        // The free cells are locked first, so the UPDATE below claims every one of them and nothing else:
+        // which cells this request won never has to be worked out from what the rows look like afterwards.
+        Set<Integer> won = new HashSet<>();
+        for (Number cell : squareRepository.lockFreeCells(poolId, cells)) {
+            won.add(cell.intValue());
+        }
+        boolean rollBack = won.size() < cells.size() && request.isAllOrNothing();
+        if (!won.isEmpty() && !rollBack) {
+            int updated = squareRepository.claimAllIfAvailable(poolId, new ArrayList<>(won), request.getProfileId(), profileName, claimedAt);
+            if (updated != won.size()) {
+                throw new IllegalStateException("Claimed " + updated + " of " + won.size() + " locked squares in pool " + poolId);
+            }
         }
 
-        square.setProfile(profile);
-        square.setProfileName(profile.getFullName());
-        square.setClaimedAt(LocalDateTime.now());
+        List<BatchClaimRequest.SquarePosition> claimed = new ArrayList<>();
+        List<BatchClaimRequest.SquarePosition> conflicts = new ArrayList<>();
+        for (int cell : cells) {
+            BatchClaimRequest.SquarePosition position =
+                    new BatchClaimRequest.SquarePosition(cell / GridSnapshot.SIZE, cell % GridSnapshot.SIZE);
+            (won.contains(cell) ? claimed : conflicts).add(position);
+        }
 
-        return squareRepository.save(square);
+        if (!conflicts.isEmpty() && request.isAllOrNothing()) {
+            return new BatchClaimResponse(poolId, request.getProfileId(), List.of(), conflicts, true);
+        }
+
+        for (BatchClaimRequest.SquarePosition position : claimed) {
+            Square square = new Square();
+            square.setRowPosition(position.getRowPosition());
+            square.setColPosition(position.getColPosition());
+            Profile profile = new Profile();
+            profile.setId(request.getProfileId());
+            square.setProfile(profile);
+            square.setProfileName(profileName);
+            square.setClaimedAt(claimedAt);
+            gridReadModel.claimed(poolId, square);
+            gridSheetWriteBehind.cellChanged(poolId, position.getRowPosition(), position.getColPosition(), profileName);
+        }
+        return new BatchClaimResponse(poolId, request.getProfileId(), claimed, conflicts, false);
+    }
+
+    // Admins may assign any profile; everyone else only their own. Role comes from the authenticated principal.
+    private String findClaimableProfileName(Authentication authentication, Long profileId) {
+        boolean isAdmin = authentication.getAuthorities().stream()
+                .anyMatch(a -> "ROLE_ADMIN".equals(a.getAuthority()));
+        if (isAdmin) {
+            return profileRepository.findFullNameById(profileId)
+                    .orElseThrow(() -> new RuntimeException("Profile not found"));
+        }
+        return profileRepository.findFullNameByIdAndUserEmail(profileId, authentication.getName())
+                .orElseThrow(() -> new RuntimeException(profileRepository.existsById(profileId)
+                        ? "Profile does not belong to user"
+                        : "Profile not found"));
     }
 
-    @Transactional
     public Square unclaimSquare(Long poolId, Integer rowPosition, Integer colPosition) {
+        GridSnapshot.Cell cell = gridReadModel.getSnapshot(poolId).getCell(rowPosition, colPosition);
+        if (cell == null) {
+            throw new RuntimeException("Square not found");
+        }
+        if (!cell.isClaimed()) {
+            throw new RuntimeException("Square is not claimed");
+        }
+
         String email = SecurityContextHolder.getContext().getAuthentication().getName();
+        return claimSequencer.run(poolId, () -> transactionTemplate.execute(status ->
+                writeUnclaim(email, poolId, rowPosition, colPosition)));
+    }
+
+    private Square writeUnclaim(String email, Long poolId, Integer rowPosition, Integer colPosition) {
         User user = userRepository.findByEmail(email)
             .orElseThrow(() -> new RuntimeException("User not found"));
 
@@ -86,11 +241,39 @@ public class SquareService {
         square.setProfileName(null);
         square.setClaimedAt(null);
 
-        return squareRepository.save(square);
+        Square saved = squareRepository.save(square);
+        gridReadModel.unclaimed(poolId, rowPosition, colPosition);
+        gridSheetWriteBehind.cellChanged(poolId, rowPosition, colPosition, "");
+        return saved;
+    }
+
+    // Keeps the cached profile_name column and the grid in step with a profile rename.
+    @Transactional
+    public void renameProfile(Long profileId, String fullName) {
+        writeProfileCellsToSheet(profileId, fullName);
+        squareRepository.updateProfileNameByProfileId(profileId, fullName);
+        gridReadModel.profileRenamed(profileId, fullName);
+    }
+
+    // Frees every square held by a profile that is about to be deleted.
+    @Transactional
+    public void releaseProfile(Long profileId) {
+        writeProfileCellsToSheet(profileId, "");
+        squareRepository.releaseByProfileId(profileId);
+        gridReadModel.profileDeleted(profileId);
+    }
+
+    // Queues a sheet write for every square the profile currently holds, in any pool.
+    private void writeProfileCellsToSheet(Long profileId, String value) {
+        for (Object[] cell : squareRepository.findCellsByProfileId(profileId)) {
+            int index = ((Number) cell[1]).intValue();
+            gridSheetWriteBehind.cellChanged(((Number) cell[0]).longValue(),
+                    index / GridSnapshot.SIZE, index % GridSnapshot.SIZE, value);
+        }
     }
 
     public long getClaimedCount(Long poolId) {
-        return squareRepository.countByPoolIdAndProfileIdIsNotNull(poolId);
+        return gridReadModel.getSnapshot(poolId).getClaimedCount();
     }
 
     public List<Square> getAvailableSquares(Long poolId) {
@@ -5,6 +5,7 @@ import com.superbowl.squares.dto.ChangePasswordRequest;
 import com.superbowl.squares.dto.PaymentInfoRequest;
 import com.superbowl.squares.dto.ProfileRequest;
 import com.superbowl.squares.dto.UpdateEmailRequest;
+import com.superbowl.squares.google.SheetsOutbox;
 import com.superbowl.squares.model.PaymentInfo;
 import com.superbowl.squares.model.Profile;
 import com.superbowl.squares.model.User;
@@ -12,6 +13,8 @@ import com.superbowl.squares.repository.PaymentInfoRepository;
 import com.superbowl.squares.repository.ProfileRepository;
 import com.superbowl.squares.repository.UserRepository;
 import com.superbowl.squares.security.JwtTokenProvider;
+import com.superbowl.squares.security.PrincipalCache;
+import com.superbowl.squares.security.TokenVersions;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
@@ -32,9 +35,6 @@ import java.util.stream.Collectors;
 @Service
 public class UserAccountService {
 
-    private static final String SPREADSHEET_ID = "1zXue8QE0GBV5GRWv7k5JSR67yRjMf3o7Cj9egY4Fguk";
-    private static final String OWNERS_SHEET = "Owners";
-
     @Autowired
     private UserRepository userRepository;
 
@@ -54,7 +54,16 @@ public class UserAccountService {
     private JwtTokenProvider tokenProvider;
 
     @Autowired
-    private com.superbowl.squares.google.GoogleSheetsService googleSheetsService;
+    private SheetsOutbox sheetsOutbox;
+
+    @Autowired
+    private SquareService squareService;
+
+    @Autowired
+    private PrincipalCache principalCache;
+
+    @Autowired
+    private TokenVersions tokenVersions;
 
     @PersistenceContext
     private EntityManager entityManager;
@@ -86,21 +95,20 @@ public class UserAccountService {
         }
 
         dbUser.setEmail(newEmail);
+        tokenVersions.bump(dbUser);
         User updatedUser = userRepository.save(dbUser);
+        principalCache.invalidate(oldEmail);
+        principalCache.invalidate(newEmail);
 
-        // Keep Owners sheet email in sync (best-effort)
-        try {
-            syncOwnersRow(updatedUser, oldEmail, null);
-        } catch (Exception e) {
-            System.err.println("[WARN] Failed to update Owners sheet after email change: " + e.getMessage());
-        }
+        // Keep Owners sheet email in sync (applied after commit by the sheets outbox worker)
+        sheetsOutbox.ownerChanged(updatedUser.getId(), oldEmail, null);
 
         // Re-authenticate to generate a token with the new email
         Authentication authentication = authenticationManager.authenticate(
                 new UsernamePasswordAuthenticationToken(updatedUser.getEmail(), request.getCurrentPassword())
         );
         SecurityContextHolder.getContext().setAuthentication(authentication);
-        String token = tokenProvider.generateToken(authentication);
+        String token = tokenProvider.generateToken(updatedUser);
 
         return new AuthResponse(token, updatedUser.getEmail(), updatedUser.getIsAdmin(), toProfileDTOs(updatedUser.getProfiles()));
     }
@@ -119,21 +127,19 @@ public class UserAccountService {
         }
 
         dbUser.setPasswordHash(passwordEncoder.encode(request.getNewPassword()));
+        tokenVersions.bump(dbUser);
         User updatedUser = userRepository.save(dbUser);
+        principalCache.invalidate(updatedUser.getEmail());
 
-        // Keep Owners sheet password in sync (best-effort)
-        try {
-            syncOwnersRow(updatedUser, null, request.getNewPassword());
-        } catch (Exception e) {
-            System.err.println("[WARN] Failed to update Owners sheet after password change: " + e.getMessage());
-        }
+        // Keep Owners sheet password in sync (applied after commit by the sheets outbox worker)
+        sheetsOutbox.ownerChanged(updatedUser.getId(), null, request.getNewPassword());
 
         // Re-authenticate to return a fresh token
         Authentication authentication = authenticationManager.authenticate(
                 new UsernamePasswordAuthenticationToken(updatedUser.getEmail(), request.getNewPassword())
         );
         SecurityContextHolder.getContext().setAuthentication(authentication);
-        String token = tokenProvider.generateToken(authentication);
+        String token = tokenProvider.generateToken(updatedUser);
 
         return new AuthResponse(token, updatedUser.getEmail(), updatedUser.getIsAdmin(), toProfileDTOs(updatedUser.getProfiles()));
     }
@@ -166,31 +172,7 @@ public class UserAccountService {
 
         Profile saved = profileRepository.save(profile);
 
-        try {
-            // Ensure Owners sync sees the newly created profile.
-            // NOTE: saving Profile does not mutate dbUser.getProfiles(); within the same persistence
-            // context `findById` may return the cached User with a stale profiles collection.
-            entityManager.flush();
-            entityManager.clear();
-
-            User refreshed = userRepository.findById(user.getId())
-                    .orElseThrow(() -> new RuntimeException("User not found after profile create"));
-            List<Profile> freshProfiles = profileRepository.findByUserId(user.getId());
-            List<PaymentInfo> freshPaymentInfos = paymentInfoRepository.findByUserId(user.getId());
-
-            User snapshot = new User();
-            snapshot.setId(refreshed.getId());
-            snapshot.setEmail(refreshed.getEmail());
-            snapshot.setIsAdmin(refreshed.getIsAdmin());
-            snapshot.setProfiles(freshProfiles);
-            snapshot.setPaymentInfos(freshPaymentInfos);
-            snapshot.setCreatedAt(refreshed.getCreatedAt());
-            snapshot.setUpdatedAt(refreshed.getUpdatedAt());
-
-            syncOwnersRow(snapshot, null, null);
-        } catch (Exception e) {
-            System.err.println("[WARN] Failed to update Owners sheet after profile create: " + e.getMessage());
-        }
+        sheetsOutbox.ownerChanged(dbUser.getId());
 
         return saved;
     }
@@ -213,17 +195,17 @@ public class UserAccountService {
             throw new com.superbowl.squares.exception.DuplicateProfileNameException("A profile with this full name already exists");
         }
 
+        boolean renamed = !profile.getFullName().equals(newName);
         profile.setFullName(newName);
         // Do not allow self-service users to change profileNumber.
 
         Profile updated = profileRepository.save(profile);
-
-        try {
-            syncOwnersRow(getMe(profile.getUser()), null, null);
-        } catch (Exception e) {
-            System.err.println("[WARN] Failed to update Owners sheet after profile update: " + e.getMessage());
+        if (renamed) {
+            squareService.renameProfile(profileId, newName);
         }
 
+        sheetsOutbox.ownerChanged(user.getId());
+
         return updated;
     }
 
@@ -271,6 +253,8 @@ public class UserAccountService {
             throw new RuntimeException("Profile does not belong to user");
         }
 
+        squareService.releaseProfile(profileId);
+
         // Force SQL execution now so any FK/constraint errors surface in this request.
         entityManager.flush();
         entityManager.clear();
@@ -279,7 +263,9 @@ public class UserAccountService {
             throw new RuntimeException("Profile delete did not persist");
         }
 
-        // Load fresh lists from repositories for Owners sync + response.
+        sheetsOutbox.ownerChanged(user.getId());
+
+        // Load fresh lists from repositories for the response.
         dbUser = userRepository.findById(user.getId())
                 .orElseThrow(() -> new RuntimeException("User not found after profile delete"));
         List<Profile> freshProfiles = profileRepository.findByUserId(user.getId());
@@ -294,12 +280,6 @@ public class UserAccountService {
         snapshot.setCreatedAt(dbUser.getCreatedAt());
         snapshot.setUpdatedAt(dbUser.getUpdatedAt());
 
-        try {
-            syncOwnersRow(snapshot, null, null);
-        } catch (Exception e) {
-            System.err.println("[WARN] Failed to update Owners sheet after profile delete: " + e.getMessage());
-        }
-
         return snapshot;
     }
 
@@ -327,11 +307,7 @@ public class UserAccountService {
             ensureSinglePrimary(dbUser, saved.getId());
         }
 
-        try {
-            syncOwnersRow(getMe(dbUser), null, null);
-        } catch (Exception e) {
-            System.err.println("[WARN] Failed to update Owners sheet after payment create: " + e.getMessage());
-        }
+        sheetsOutbox.ownerChanged(dbUser.getId());
 
         return saved;
     }
@@ -360,11 +336,7 @@ public class UserAccountService {
             ensureSinglePrimary(updated.getUser(), updated.getId());
         }
 
-        try {
-            syncOwnersRow(getMe(updated.getUser()), null, null);
-        } catch (Exception e) {
-            System.err.println("[WARN] Failed to update Owners sheet after payment update: " + e.getMessage());
-        }
+        sheetsOutbox.ownerChanged(user.getId());
 
         return updated;
     }
@@ -388,12 +360,7 @@ public class UserAccountService {
             ensureSinglePrimary(remaining.get(0).getUser(), remaining.get(0).getId());
         }
 
-        try {
-            User dbUser = userRepository.findById(user.getId()).orElseThrow();
-            syncOwnersRow(getMe(dbUser), null, null);
-        } catch (Exception e) {
-            System.err.println("[WARN] Failed to update Owners sheet after payment delete: " + e.getMessage());
-        }
+        sheetsOutbox.ownerChanged(user.getId());
     }
 
     private void ensureSinglePrimary(User user, Long keepPrimaryId) {
@@ -413,79 +380,4 @@ public class UserAccountService {
                 .map(p -> new AuthResponse.ProfileDTO(p.getId(), p.getFullName(), p.getProfileNumber()))
                 .collect(Collectors.toList());
     }
-
-    private void syncOwnersRow(User user, String oldEmailOrNull, String newPasswordOrNull) throws Exception {
-        // Read all rows from Owners sheet
-        List<List<Object>> rows = googleSheetsService.readSheet(SPREADSHEET_ID, OWNERS_SHEET, "A2:N");
-        int rowIndex = -1;
-        for (int i = 0; i < rows.size(); i++) {
-            Object emailCell = rows.get(i).size() > 0 ? rows.get(i).get(0) : null;
-            if (emailCell == null) continue;
-
-            String email = emailCell.toString();
-            if (oldEmailOrNull != null) {
-                if (email.equalsIgnoreCase(oldEmailOrNull)) {
-                    rowIndex = i;
-                    break;
-                }
-            } else if (email.equalsIgnoreCase(user.getEmail())) {
-                rowIndex = i;
-                break;
-            }
-        }
-        if (rowIndex == -1) {
-            // If not found, do nothing (keep behavior aligned with AdminService warnings)
-            System.err.println("[WARN] Could not find Owners sheet row for user " + (oldEmailOrNull != null ? oldEmailOrNull : user.getEmail()));
-            return;
-        }
-
-        // Prepare new row data (A=email, B=password, C:L=profiles (by profileNumber), M=payment method, N=identifier)
-        List<String> profileNames = new ArrayList<>();
-        for (int i = 0; i < 10; i++) profileNames.add("");
-
-        if (user.getProfiles() != null) {
-            for (Profile p : user.getProfiles()) {
-                if (p == null) continue;
-                String name = p.getFullName() != null ? p.getFullName() : "";
-
-                Integer n = p.getProfileNumber();
-                if (n != null && n >= 1 && n <= 10) {
-                    profileNames.set(n - 1, name);
-                } else {
-                    // Fallback: place into first available slot
-                    for (int i = 0; i < profileNames.size(); i++) {
-                        if (profileNames.get(i).isEmpty()) {
-                            profileNames.set(i, name);
-                            break;
-                        }
-                    }
-                }
-            }
-        }
-
-        String paymentMethod = "";
-        String identifier = "";
-        if (user.getPaymentInfos() != null && !user.getPaymentInfos().isEmpty()) {
-            PaymentInfo primary = user.getPaymentInfos().stream()
-                    .filter(p -> Boolean.TRUE.equals(p.getIsPrimary()))
-                    .findFirst()
-                    .orElse(user.getPaymentInfos().get(0));
-            paymentMethod = primary.getPaymentMethod() != null ? primary.getPaymentMethod().toString() : "";
-            identifier = primary.getAccountIdentifier() != null ? primary.getAccountIdentifier() : "";
-        }
-
-        List<Object> newRow = new ArrayList<>();
-        newRow.add(user.getEmail());
-        // Preserve password from sheet unless explicitly updating it (e.g., password change)
-        String sheetPassword = rows.get(rowIndex).size() > 1 ? rows.get(rowIndex).get(1).toString() : "";
-        newRow.add(newPasswordOrNull != null ? newPasswordOrNull : sheetPassword);
-        newRow.addAll(profileNames);
-        newRow.add(paymentMethod);
-        newRow.add(identifier);
-
-        List<List<Object>> values = java.util.Collections.singletonList(newRow);
-        // Google Sheets rows are 1-based, header is row 1, so A2 is rowIndex+2
-        String range = "A" + (rowIndex + 2) + ":N" + (rowIndex + 2);
-        googleSheetsService.updateSheet(SPREADSHEET_ID, OWNERS_SHEET, range, values);
-    }
 }
@@ -0,0 +1,259 @@
+package com.superbowl.squares.service;
+
+import com.superbowl.squares.dto.ScoreUpdateResponse;
+import com.superbowl.squares.google.ScoreboardCache;
+import com.superbowl.squares.google.ScoreboardSnapshot;
+import com.superbowl.squares.grid.GridReadModel;
+import com.superbowl.squares.grid.GridSnapshot;
+import com.superbowl.squares.model.GameScore;
+import com.superbowl.squares.model.Pool;
+import com.superbowl.squares.model.Winner;
+import com.superbowl.squares.repository.PoolRepository;
+import com.superbowl.squares.repository.WinnerRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Decides every active pool's winning square for a quarter in one pass when its score is saved.
+// A pool's digits live on its sheet (AFC F1:O4, one row per quarter; NFC A6:D15, one column per
+// quarter). Before the score's transaction opens, the scoreboard is refreshed so a digit edited just
+// before the save counts; if Google can't be reached, the last snapshot is used and the response says
+// so. Each snapshot's digits are turned once into inverse tables, digit -> grid column and digit ->
+// grid row, so inside the transaction a pool's winner is two array lookups into its in-memory grid.
+// Pools whose sheet lacks the digits are reported back, not silently passed.
+// A pool keeps one winner per quarter: re-saving a score rewrites only pools whose result changed.
+@Service
+public class WinnerService {
+
+    private static final Logger logger = LoggerFactory.getLogger(WinnerService.class);
+
+    private static final String INSERT_SQL =
+            "INSERT INTO winners (pool_id, square_id, profile_id, quarter, payout_amount, afc_score, nfc_score, created_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String DELETE_SQL = "DELETE FROM winners WHERE id = ?";
+
+    @Autowired
+    private PoolRepository poolRepository;
+
+    @Autowired
+    private WinnerRepository winnerRepository;
+
+    @Autowired
+    private GridReadModel gridReadModel;
+
+    @Autowired
+    private ScoreboardCache scoreboardCache;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    // Share of the pot (bet amount x claimed squares) paid for Q1, Q2, Q3 and FINAL, in percent.
+    @Value("${winners.payout-percent:25,25,25,25}")
+    private int[] payoutPercent;
+
+    // How long a score save waits for the scoreboard refresh before falling back to the last snapshot.
+    @Value("${winners.refresh-wait-ms:5000}")
+    private long refreshWaitMs;
+
+    private final Timer computeTimer;
+
+    // Inverse digit tables by pool name, for the scoreboard snapshot version they were built from.
+    private volatile long tablesVersion = -1;
+    private volatile Map<String, DigitTables> tables = Map.of();
+
+    public WinnerService(MeterRegistry meterRegistry) {
+        this.computeTimer = Timer.builder("winners.compute")
+                .description("Time to decide and store the winners of every pool for one quarter score")
+                .register(meterRegistry);
+    }
+
+    // Digit tables from a scoreboard refreshed just now. Reads Google, so call it before opening the
+    // score's transaction; when the refresh fails the last snapshot's tables are returned, marked stale.
+    public Digits currentDigits() {
+        ScoreboardSnapshot snapshot;
+        boolean fresh;
+        try {
+            snapshot = scoreboardCache.freshSnapshot(refreshWaitMs);
+            fresh = true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            snapshot = scoreboardCache.getSnapshot();
+            fresh = false;
+        } catch (Exception e) {
+            logger.warn("Scoreboard refresh for winners failed, using snapshot v{}: {}",
+                    scoreboardCache.getSnapshot().getVersion(), e.getMessage());
+            snapshot = scoreboardCache.getSnapshot();
+            fresh = false;
+        }
+        return new Digits(digitTables(snapshot), fresh);
+    }
+
+    private Map<String, DigitTables> digitTables(ScoreboardSnapshot snapshot) {
+        if (tablesVersion == snapshot.getVersion()) {
+            return tables;
+        }
+        Map<String, DigitTables> built = new HashMap<>();
+        snapshot.getPools().forEach((poolName, scores) -> built.put(poolName, DigitTables.of(scores)));
+        tables = built;
+        tablesVersion = snapshot.getVersion();
+        return built;
+    }
+
+    // Runs in the caller's transaction, so winners are stored together with the score. Only database
+    // work happens here. Q4 pays nothing on its own: the FINAL score decides the last payout.
+    @Transactional
+    public ScoreUpdateResponse scoreUpdated(GameScore score, Digits digits) {
+        Winner.QuarterType quarter = winnerQuarter(score.getQuarter());
+        if (quarter == null) {
+            return new ScoreUpdateResponse(score, 0, List.of(), true);
+        }
+        return computeTimer.record(() -> computeWinners(score, quarter, digits));
+    }
+
+    private ScoreUpdateResponse computeWinners(GameScore score, Winner.QuarterType quarter, Digits digits) {
+        int q = quarter.ordinal();
+        int afcScore = score.getAfcScore();
+        int nfcScore = score.getNfcScore();
+        int afcDigit = Math.floorMod(afcScore, 10);
+        int nfcDigit = Math.floorMod(nfcScore, 10);
+
+        Map<Long, Winner> existing = new HashMap<>();
+        for (Winner winner : winnerRepository.findByQuarter(quarter)) {
+            existing.put(winner.getPool().getId(), winner);
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        List<Object[]> inserts = new ArrayList<>();
+        List<Object[]> deletes = new ArrayList<>();
+        List<String> skipped = new ArrayList<>();
+        for (Pool pool : poolRepository.findByIsActiveTrue()) {
+            DigitTables table = digits.tables.get(pool.getPoolName());
+            int row = table != null ? table.nfcRow[q][nfcDigit] : -1;
+            int col = table != null ? table.afcCol[q][afcDigit] : -1;
+            if (row < 0 || col < 0) {
+                skipped.add(pool.getPoolName());
+                continue;
+            }
+
+            GridSnapshot grid = gridReadModel.getSnapshot(pool.getId());
+            GridSnapshot.Cell cell = grid.getCell(row, col);
+            Winner previous = existing.get(pool.getId());
+            if (cell == null || !cell.isClaimed()) {
+                // Nobody holds the square: no winner, and any earlier one for this quarter is void.
+                if (previous != null) {
+                    deletes.add(new Object[] { previous.getId() });
+                }
+                continue;
+            }
+
+            BigDecimal payout = pool.getBetAmount()
+                    .multiply(BigDecimal.valueOf(grid.getClaimedCount()))
+                    .multiply(BigDecimal.valueOf(q < payoutPercent.length ? payoutPercent[q] : 0))
+                    .divide(BigDecimal.valueOf(100), 2, RoundingMode.HALF_UP);
+            if (previous != null) {
+                if (previous.getSquare().getId().equals(cell.getSquareId())
+                        && previous.getProfile().getId().equals(cell.getProfileId())
+                        && previous.getPayoutAmount().compareTo(payout) == 0
+                        && previous.getAfcScore() == afcScore && previous.getNfcScore() == nfcScore) {
+                    continue;
+                }
+                deletes.add(new Object[] { previous.getId() });
+            }
+            inserts.add(new Object[] { pool.getId(), cell.getSquareId(), cell.getProfileId(), quarter.name(),
+                    payout, afcScore, nfcScore, Timestamp.valueOf(now) });
+        }
+
+        if (!deletes.isEmpty()) {
+            jdbcTemplate.batchUpdate(DELETE_SQL, deletes);
+        }
+        if (!inserts.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_SQL, inserts);
+        }
+        if (!skipped.isEmpty()) {
+            logger.warn("{} pools have no {} digits for AFC {} / NFC {} on their sheet; no winner recorded: {}",
+                    skipped.size(), quarter, afcDigit, nfcDigit, skipped);
+        }
+        logger.info("{} {}-{}: {} winners written, {} removed", quarter, afcScore, nfcScore, inserts.size(), deletes.size());
+        return new ScoreUpdateResponse(score, inserts.size(), skipped, digits.fresh);
+    }
+
+    private static Winner.QuarterType winnerQuarter(GameScore.Quarter quarter) {
+        return switch (quarter) {
+            case Q1 -> Winner.QuarterType.Q1;
+            case Q2 -> Winner.QuarterType.Q2;
+            case Q3 -> Winner.QuarterType.Q3;
+            case FINAL -> Winner.QuarterType.FINAL;
+            case Q4 -> null;
+        };
+    }
+
+    // One scoreboard snapshot's digit tables, and whether that snapshot was read for this save.
+    public static final class Digits {
+        private final Map<String, DigitTables> tables;
+        private final boolean fresh;
+
+        private Digits(Map<String, DigitTables> tables, boolean fresh) {
+            this.tables = tables;
+            this.fresh = fresh;
+        }
+    }
+
+    // [quarter][digit] -> grid column (AFC) or grid row (NFC); -1 where the sheet has no such digit.
+    private static final class DigitTables {
+        final int[][] afcCol = new int[4][10];
+        final int[][] nfcRow = new int[4][10];
+
+        static DigitTables of(ScoreboardSnapshot.PoolScores scores) {
+            DigitTables t = new DigitTables();
+            for (int q = 0; q < 4; q++) {
+                Arrays.fill(t.afcCol[q], -1);
+                Arrays.fill(t.nfcRow[q], -1);
+            }
+            List<List<Object>> afc = scores.getAfc();
+            for (int q = 0; q < 4 && q < afc.size(); q++) {
+                List<Object> cells = afc.get(q);
+                for (int col = 0; col < GridSnapshot.SIZE && col < cells.size(); col++) {
+                    int digit = digit(cells.get(col));
+                    if (digit >= 0 && t.afcCol[q][digit] < 0) {
+                        t.afcCol[q][digit] = col;
+                    }
+                }
+            }
+            List<List<Object>> nfc = scores.getNfc();
+            for (int row = 0; row < GridSnapshot.SIZE && row < nfc.size(); row++) {
+                List<Object> cells = nfc.get(row);
+                for (int q = 0; q < 4 && q < cells.size(); q++) {
+                    int digit = digit(cells.get(q));
+                    if (digit >= 0 && t.nfcRow[q][digit] < 0) {
+                        t.nfcRow[q][digit] = row;
+                    }
+                }
+            }
+            return t;
+        }
+
+        private static int digit(Object value) {
+            if (value == null) {
+                return -1;
+            }
+            String s = value.toString().trim();
+            return s.length() == 1 && Character.isDigit(s.charAt(0)) ? s.charAt(0) - '0' : -1;
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.superbowl.squares.util;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+// Hooks for work that must only happen once the surrounding database transaction has committed,
+// such as updating in-memory read models or queueing sheet writes.
+public final class Transactions {
+
+    private Transactions() {
+    }
+
+    // Runs the action once the surrounding transaction commits, or immediately when there is none.
+    public static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
@@ -0,0 +1,204 @@
+package com.superbowl.squares.grid;
+
+import com.superbowl.squares.exception.GlobalExceptionHandler;
+import com.superbowl.squares.exception.SquareAlreadyClaimedException;
+import com.superbowl.squares.google.GridSheetWriteBehind;
+import com.superbowl.squares.model.Square;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntFunction;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+// Many requests race for one square; the conditional claim UPDATE must let exactly one of them win.
+// Runs against an in-memory H2 database in MySQL mode, with the read model and sheet writes stubbed.
+class ConcurrentClaimTest {
+
+    private static final long POOL_ID = 1L;
+    private static final int ROW = 4;
+    private static final int COL = 7;
+    private static final int RACERS = 16;
+
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate transactionTemplate;
+    private GridReadModel gridReadModel;
+    private long squareId;
+    private ExecutorService racers;
+
+    @BeforeEach
+    void setUp() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:claims-" + System.nanoTime() + ";MODE=MySQL;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=10000", "sa", "");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        jdbcTemplate.execute("CREATE TABLE squares (" +
+                "id BIGINT AUTO_INCREMENT PRIMARY KEY, pool_id BIGINT NOT NULL, " +
+                "row_position INT NOT NULL, col_position INT NOT NULL, profile_id BIGINT NULL, " +
+                "profile_name VARCHAR(255) NULL, claimed_at TIMESTAMP NULL, version BIGINT NOT NULL DEFAULT 0, " +
+                "UNIQUE (pool_id, row_position, col_position))");
+        jdbcTemplate.update("INSERT INTO squares (pool_id, row_position, col_position) VALUES (?, ?, ?)", POOL_ID, ROW, COL);
+        squareId = jdbcTemplate.queryForObject("SELECT id FROM squares", Long.class);
+
+        // A read model that never learns about the winning claim, so every racer gets past the
+        // in-memory check and only the UPDATE can turn the losers away.
+        GridSnapshot.Cell[] cells = new GridSnapshot.Cell[GridSnapshot.CELL_COUNT];
+        cells[ROW * GridSnapshot.SIZE + COL] = new GridSnapshot.Cell(squareId, null, null, null);
+        GridSnapshot stale = new GridSnapshot(POOL_ID, 1, cells);
+        gridReadModel = mock(GridReadModel.class);
+        when(gridReadModel.getSnapshot(anyLong())).thenReturn(stale);
+
+        racers = Executors.newFixedThreadPool(RACERS);
+    }
+
+    @AfterEach
+    void tearDown() {
+        racers.shutdownNow();
+    }
+
+    @Test
+    void conditionalUpdateLetsExactlyOneWriterClaimTheSquare() throws Exception {
+        ClaimBatchWriter writer = writer();
+
+        List<Object> outcomes = race(i -> () -> writer.write(POOL_ID, List.of(claim(i))).get(0));
+
+        int winners = 0;
+        Long winner = null;
+        for (Object outcome : outcomes) {
+            if (outcome != null) {
+                winners++;
+                winner = ((Square) outcome).getProfile().getId();
+            }
+        }
+        assertEquals(1, winners);
+        assertEquals(winner, jdbcTemplate.queryForObject("SELECT profile_id FROM squares WHERE id = ?", Long.class, squareId));
+        assertEquals(1L, jdbcTemplate.queryForObject("SELECT version FROM squares WHERE id = ?", Long.class, squareId));
+    }
+
+    @Test
+    void racingClaimsGetOneWinnerAndConflictsForTheRest() throws Exception {
+        // Two sequencers stand in for two application instances writing to the same database.
+        ClaimBatchWriter writer = writer();
+        ClaimSequencer first = sequencer(writer);
+        ClaimSequencer second = sequencer(writer);
+        try {
+            List<Object> outcomes = race(i -> () -> (i % 2 == 0 ? first : second).claim(POOL_ID, claim(i)));
+
+            int winners = 0;
+            int conflicts = 0;
+            for (Object outcome : outcomes) {
+                if (outcome instanceof Square) {
+                    winners++;
+                } else {
+                    assertInstanceOf(SquareAlreadyClaimedException.class, outcome);
+                    conflicts++;
+                }
+            }
+            assertEquals(1, winners);
+            assertEquals(RACERS - 1, conflicts);
+            assertNotNull(jdbcTemplate.queryForObject("SELECT profile_id FROM squares WHERE id = ?", Long.class, squareId));
+        } finally {
+            first.shutdown();
+            second.shutdown();
+        }
+    }
+
+    @Test
+    void updateCountsWithoutInfoFailTheBatchInsteadOfLosingEveryClaim() {
+        ClaimBatchWriter writer = writer();
+        JdbcTemplate noInfo = mock(JdbcTemplate.class);
+        when(noInfo.batchUpdate(anyString(), anyList())).thenReturn(new int[] { Statement.SUCCESS_NO_INFO });
+        ReflectionTestUtils.setField(writer, "jdbcTemplate", noInfo);
+
+        assertThrows(IllegalStateException.class, () -> writer.write(POOL_ID, List.of(claim(0))));
+    }
+
+    @Test
+    void lostClaimIsAnsweredWithConflict() {
+        int status = new GlobalExceptionHandler()
+                .handleSquareAlreadyClaimed(new SquareAlreadyClaimedException("Square is already claimed"), null)
+                .getStatusCode().value();
+        assertEquals(HttpStatus.CONFLICT.value(), status);
+    }
+
+    private ClaimBatchWriter writer() {
+        ClaimBatchWriter writer = new ClaimBatchWriter();
+        ReflectionTestUtils.setField(writer, "jdbcTemplate", jdbcTemplate);
+        ReflectionTestUtils.setField(writer, "transactionTemplate", transactionTemplate);
+        ReflectionTestUtils.setField(writer, "gridReadModel", gridReadModel);
+        ReflectionTestUtils.setField(writer, "gridSheetWriteBehind", mock(GridSheetWriteBehind.class));
+        return writer;
+    }
+
+    private ClaimSequencer sequencer(ClaimBatchWriter writer) {
+        ClaimSequencer sequencer = new ClaimSequencer(new SimpleMeterRegistry(), 2);
+        ReflectionTestUtils.setField(sequencer, "maxBatch", 32);
+        ReflectionTestUtils.setField(sequencer, "timeoutMs", 10000L);
+        ReflectionTestUtils.setField(sequencer, "maxQueueDepth", RACERS * 2);
+        ReflectionTestUtils.setField(sequencer, "retryAfterSeconds", 1L);
+        ReflectionTestUtils.setField(sequencer, "gridReadModel", gridReadModel);
+        ReflectionTestUtils.setField(sequencer, "claimBatchWriter", writer);
+        return sequencer;
+    }
+
+    private static ClaimCommand claim(int racer) {
+        return new ClaimCommand(null, ROW, COL, 100L + racer, "Profile " + racer);
+    }
+
+    // Starts all racers at once; each outcome is the call's result, or the exception it threw.
+    private List<Object> race(IntFunction<Callable<Object>> calls) throws Exception {
+        CountDownLatch ready = new CountDownLatch(RACERS);
+        CountDownLatch go = new CountDownLatch(1);
+        List<Future<Object>> futures = new ArrayList<>();
+        for (int i = 0; i < RACERS; i++) {
+            Callable<Object> call = calls.apply(i);
+            futures.add(racers.submit(() -> {
+                ready.countDown();
+                go.await();
+                try {
+                    return call.call();
+                } catch (RuntimeException e) {
+                    return e;
+                }
+            }));
+        }
+        ready.await(10, TimeUnit.SECONDS);
+        go.countDown();
+
+        List<Object> outcomes = new ArrayList<>();
+        for (Future<Object> future : futures) {
+            try {
+                outcomes.add(future.get(30, TimeUnit.SECONDS));
+            } catch (ExecutionException e) {
+                throw new AssertionError("Racer failed unexpectedly", e.getCause());
+            }
+        }
+        return outcomes;
+    }
+}
@@ -0,0 +1,99 @@
+package com.superbowl.squares.security;
+
+import com.superbowl.squares.model.User;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// Per-request cost of authenticating a bearer token. "before" is what JwtAuthenticationFilter paid
+// originally: validateToken and getEmailFromToken each verified the signature (HMAC-SHA512 plus JSON
+// parsing) with a freshly built parser. The "after" cases call the same two methods on today's
+// provider, for a token's first request (one verification) and for a repeat (both from the cache).
+// coldParse and cachedParse measure a single parseToken of each kind.
+// Run with: mvn -Pbenchmark test-compile exec:exec
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtParseBenchmark {
+
+    private static final String SECRET = "benchmark-secret-benchmark-secret-benchmark-secret-benchmark-secret-0123456789";
+
+    @State(Scope.Thread)
+    public static class Tokens {
+        JwtTokenProvider provider;
+        Map<?, ?> verified;
+        String token;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            provider = new JwtTokenProvider(new SimpleMeterRegistry());
+            ReflectionTestUtils.setField(provider, "jwtSecret", SECRET);
+            ReflectionTestUtils.setField(provider, "jwtExpiration", 86400000L);
+            ReflectionTestUtils.setField(provider, "verifiedCacheMaxSize", 10000);
+            verified = (Map<?, ?>) ReflectionTestUtils.getField(provider, "verified");
+
+            User user = new User();
+            user.setId(42L);
+            user.setEmail("owner@example.com");
+            user.setIsAdmin(false);
+            user.setTokenVersion(3);
+            token = provider.generateToken(user);
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class ColdTokens extends Tokens {
+        // Forget the previous verification so every call pays for the signature check.
+        @Setup(Level.Invocation)
+        public void forget() {
+            verified.clear();
+        }
+    }
+
+    @Benchmark
+    public String beforeValidateThenEmail(Tokens tokens) {
+        SecretKey key = Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8));
+        Jwts.parser().verifyWith(key).build().parseSignedClaims(tokens.token);
+        return Jwts.parser().verifyWith(key).build().parseSignedClaims(tokens.token).getPayload().getSubject();
+    }
+
+    @Benchmark
+    public String afterValidateThenEmailFirstRequest(ColdTokens tokens) {
+        return tokens.provider.validateToken(tokens.token) ? tokens.provider.getEmailFromToken(tokens.token) : null;
+    }
+
+    @Benchmark
+    public String afterValidateThenEmailRepeatRequest(Tokens tokens) {
+        return tokens.provider.validateToken(tokens.token) ? tokens.provider.getEmailFromToken(tokens.token) : null;
+    }
+
+    @Benchmark
+    public Claims coldParse(ColdTokens tokens) {
+        return tokens.provider.parseToken(tokens.token);
+    }
+
+    @Benchmark
+    public Claims cachedParse(Tokens tokens) {
+        return tokens.provider.parseToken(tokens.token);
+    }
+}
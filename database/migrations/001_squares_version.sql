@@ -0,0 +1,5 @@
+-- Adds the optimistic-lock column used by the conditional claim UPDATE in SquareService.
+USE railway;
+
+ALTER TABLE squares
+    ADD COLUMN version BIGINT NOT NULL DEFAULT 0 COMMENT 'Optimistic lock, bumped on every claim/unclaim' AFTER claimed_at;
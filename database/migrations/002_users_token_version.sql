@@ -0,0 +1,5 @@
+-- Adds the per-user JWT version checked by JwtAuthenticationFilter (see TokenVersions).
+USE railway;
+
+ALTER TABLE users
+    ADD COLUMN token_version INT NOT NULL DEFAULT 0 COMMENT 'Bumped to revoke previously issued JWTs' AFTER is_admin;
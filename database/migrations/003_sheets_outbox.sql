@@ -0,0 +1,19 @@
+-- Transactional outbox for Google Sheets writes, drained by SheetsOutboxWorker.
+USE railway;
+
+-- Pending Google Sheets writes, recorded in the same transaction as the change (see SheetsOutbox)
+CREATE TABLE sheets_outbox (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    event_type VARCHAR(32) NOT NULL,
+    user_id BIGINT NULL,
+    old_email VARCHAR(255) NULL COMMENT 'Email the Owners row is currently filed under, if it changed',
+    sheet_password VARCHAR(255) NULL COMMENT 'Password to write to the Owners row; cleared once processed',
+    status VARCHAR(16) NOT NULL DEFAULT 'PENDING',
+    attempts INT NOT NULL DEFAULT 0,
+    next_attempt_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    last_error VARCHAR(1000) NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    processed_at TIMESTAMP NULL,
+    INDEX idx_status_next_attempt (status, next_attempt_at),
+    INDEX idx_user_status (user_id, status)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
@@ -0,0 +1,20 @@
+-- Winning squares per pool and quarter, written by WinnerService when a quarter score is saved.
+USE railway;
+
+CREATE TABLE IF NOT EXISTS winners (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    pool_id BIGINT NOT NULL,
+    square_id BIGINT NOT NULL,
+    profile_id BIGINT NOT NULL,
+    quarter ENUM('Q1', 'Q2', 'Q3', 'FINAL') NOT NULL,
+    payout_amount DECIMAL(10, 2) NOT NULL,
+    afc_score INT NOT NULL,
+    nfc_score INT NOT NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    FOREIGN KEY (pool_id) REFERENCES pools(id) ON DELETE CASCADE,
+    FOREIGN KEY (square_id) REFERENCES squares(id) ON DELETE CASCADE,
+    FOREIGN KEY (profile_id) REFERENCES profiles(id) ON DELETE CASCADE,
+    UNIQUE KEY unique_pool_quarter (pool_id, quarter),
+    INDEX idx_quarter (quarter),
+    INDEX idx_profile_id (profile_id)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
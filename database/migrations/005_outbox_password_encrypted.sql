@@ -0,0 +1,7 @@
+-- sheets_outbox.sheet_password now holds the password AES-GCM encrypted (see OutboxPasswordCipher),
+-- which is longer than the plain value. Rows queued before this change still hold plain text until
+-- they are processed; drain the outbox (status PENDING -> DONE/FAILED) before taking backups.
+USE railway;
+
+ALTER TABLE sheets_outbox
+    MODIFY COLUMN sheet_password TEXT NULL COMMENT 'Encrypted password to write to the Owners row; cleared once processed';
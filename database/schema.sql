@@ -3,6 +3,7 @@
 CREATE DATABASE IF NOT EXISTS railway;
 USE railway;
 
+DROP TABLE IF EXISTS sheets_outbox;
 DROP TABLE IF EXISTS audit_log;
 DROP TABLE IF EXISTS winners;
 DROP TABLE IF EXISTS game_scores;
@@ -18,6 +19,7 @@ CREATE TABLE users (
     email VARCHAR(255) NOT NULL UNIQUE,
     password_hash VARCHAR(255) NOT NULL,
     is_admin BOOLEAN DEFAULT FALSE,
+    token_version INT NOT NULL DEFAULT 0,
     created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
     updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
     INDEX idx_email (email)
@@ -69,9 +71,46 @@ CREATE TABLE squares (
     profile_id BIGINT NULL COMMENT 'NULL if square is available',
     profile_name VARCHAR(255) NULL COMMENT 'Cached name for UI performance',
     claimed_at TIMESTAMP NULL,
+    version BIGINT NOT NULL DEFAULT 0 COMMENT 'Optimistic lock, bumped on every claim/unclaim',
     FOREIGN KEY (pool_id) REFERENCES pools(id) ON DELETE CASCADE,
     FOREIGN KEY (profile_id) REFERENCES profiles(id) ON DELETE SET NULL,
     UNIQUE KEY unique_pool_position (pool_id, row_position, col_position),
     INDEX idx_pool_id (pool_id),
     INDEX idx_profile_id (profile_id)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+-- Winning square per pool and quarter (see WinnerService)
+CREATE TABLE winners (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    pool_id BIGINT NOT NULL,
+    square_id BIGINT NOT NULL,
+    profile_id BIGINT NOT NULL,
+    quarter ENUM('Q1', 'Q2', 'Q3', 'FINAL') NOT NULL,
+    payout_amount DECIMAL(10, 2) NOT NULL,
+    afc_score INT NOT NULL,
+    nfc_score INT NOT NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    FOREIGN KEY (pool_id) REFERENCES pools(id) ON DELETE CASCADE,
+    FOREIGN KEY (square_id) REFERENCES squares(id) ON DELETE CASCADE,
+    FOREIGN KEY (profile_id) REFERENCES profiles(id) ON DELETE CASCADE,
+    UNIQUE KEY unique_pool_quarter (pool_id, quarter),
+    INDEX idx_quarter (quarter),
+    INDEX idx_profile_id (profile_id)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+-- Pending Google Sheets writes, recorded in the same transaction as the change (see SheetsOutbox)
+CREATE TABLE sheets_outbox (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    event_type VARCHAR(32) NOT NULL,
+    user_id BIGINT NULL,
+    old_email VARCHAR(255) NULL COMMENT 'Email the Owners row is currently filed under, if it changed',
+    sheet_password TEXT NULL COMMENT 'Encrypted password to write to the Owners row; cleared once processed',
+    status VARCHAR(16) NOT NULL DEFAULT 'PENDING',
+    attempts INT NOT NULL DEFAULT 0,
+    next_attempt_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    last_error VARCHAR(1000) NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    processed_at TIMESTAMP NULL,
+    INDEX idx_status_next_attempt (status, next_attempt_at),
+    INDEX idx_user_status (user_id, status)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
@@ -1,5 +1,5 @@
 import { useState, useEffect } from 'react'
-import { getSquaresByPool, getActivePools, claimSquare, unclaimSquare, getPoolById, syncGridToSheet, updateCellInSheet } from '../services/squaresService'
+import { getSquaresByPool, getActivePools, claimSquare, unclaimSquare, syncGridToSheet } from '../services/squaresService'
 import { getUser } from '../utils/auth'
 import './SquaresGrid.css'
 
@@ -56,9 +56,6 @@ function SquaresGrid({ poolId, onSquareClaimed, selectedProfileId }) {
       return;
     }
 
-    const spreadsheetId = '1zXue8QE0GBV5GRWv7k5JSR67yRjMf3o7Cj9egY4Fguk';
-    const sheetName = pool?.poolName || 'Sheet1';
-
     const selectedProfileNumericId = parseInt(selectedProfileId);
     const selectedProfileObj = user?.profiles?.find(p => p.id === selectedProfileNumericId);
     const profileName = selectedProfileObj ? selectedProfileObj.fullName : '';
@@ -80,7 +77,6 @@ function SquaresGrid({ poolId, onSquareClaimed, selectedProfileId }) {
 
       try {
         await unclaimSquare(poolId, square.rowPosition, square.colPosition);
-        await updateCellInSheet(spreadsheetId, sheetName, square.rowPosition, square.colPosition, '');
         if (onSquareClaimed) onSquareClaimed();
         window.dispatchEvent(new Event('squares-updated'));
       } catch (err) {
@@ -104,7 +100,6 @@ function SquaresGrid({ poolId, onSquareClaimed, selectedProfileId }) {
           colPosition: square.colPosition,
           profileId: selectedProfileNumericId,
         });
-        await updateCellInSheet(spreadsheetId, sheetName, square.rowPosition, square.colPosition, profileName);
         if (onSquareClaimed) onSquareClaimed();
         window.dispatchEvent(new Event('squares-updated'));
       } catch (err) {
@@ -132,29 +127,6 @@ function SquaresGrid({ poolId, onSquareClaimed, selectedProfileId }) {
       loadData();
       if (onSquareClaimed) onSquareClaimed();
       window.dispatchEvent(new Event('squares-updated'));
-
-      // --- Google Sheets Sync Logic ---
-      const pool = await getPoolById(poolId);
-      const spreadsheetId = '1zXue8QE0GBV5GRWv7k5JSR67yRjMf3o7Cj9egY4Fguk';
-      const sheetName = pool.poolName || 'Sheet1';
-      try {
-        // Map grid (0,0) to F6 (row+6, col+6)
-        const row = selectedSquare.rowPosition;
-        const col = selectedSquare.colPosition;
-        const selectedProfileObj = user?.profiles?.find(p => p.id === parseInt(selectedProfile));
-        const value = selectedProfileObj ? selectedProfileObj.fullName : '';
-        // Map grid [row,col] directly to Google Sheet cell (no offset)
-        await updateCellInSheet(
-          spreadsheetId,
-          sheetName,
-          selectedSquare.rowPosition,
-          selectedSquare.colPosition,
-          value
-        );
-      } catch (syncErr) {
-        // Optionally handle sync error (e.g., setError)
-      }
-      // --- End Google Sheets Sync Logic ---
     } catch (err) {
       setError(err.response?.data?.message || 'Failed to claim square');
     }
@@ -167,27 +139,6 @@ function SquaresGrid({ poolId, onSquareClaimed, selectedProfileId }) {
       loadData();
       if (onSquareClaimed) onSquareClaimed();
       window.dispatchEvent(new Event('squares-updated'));
-
-      // --- Google Sheets Sync Logic ---
-      const pool = await getPoolById(poolId);
-      const spreadsheetId = '1zXue8QE0GBV5GRWv7k5JSR67yRjMf3o7Cj9egY4Fguk';
-      const sheetName = pool.poolName || 'Sheet1';
-      try {
-        // Map grid (0,0) to F6 (row+6, col+6)
-        const row = selectedSquare.rowPosition + 6;
-        const col = selectedSquare.colPosition + 6;
-        // Map grid [row,col] directly to Google Sheet cell (no offset)
-        await updateCellInSheet(
-          spreadsheetId,
-          sheetName,
-          selectedSquare.rowPosition,
-          selectedSquare.colPosition,
-          '' // Remove profile name
-        );
-      } catch (syncErr) {
-        // Optionally handle sync error (e.g., setError)
-      }
-      // --- End Google Sheets Sync Logic ---
     } catch (err) {
       setError('Failed to remove square');
     }
@@ -1,4 +1,4 @@
-import { useMemo, useState, useEffect } from 'react'
+import { useState, useEffect } from 'react'
 import {
   getAllPools,
   createPool,
@@ -15,7 +15,6 @@ import {
   createPaymentInfo,
   updatePaymentInfo,
   deletePaymentInfo,
-  updateCellInSheet,
   getPoolById,
   setPoolLocked
 } from '../services/squaresService'
@@ -79,9 +78,6 @@ function Admin() {
       }
     } 
 
-    const editSquaresSheetName = useMemo(() => {
-      return editSquaresPool?.poolName || editPool?.poolName || 'Sheet1'
-    }, [editPool?.poolName, editSquaresPool?.poolName])
     // Admin square click handler
     const handleAdminSquareClick = async (square) => {
       // If a profile is selected in the dropdown, assign/unassign directly
@@ -90,15 +86,6 @@ function Admin() {
           if (square.profile && square.profile.id === parseInt(selectedProfileId)) {
             // Unclaim if already claimed by selected profile
             await unclaimSquare(editSquaresPool.id, square.rowPosition, square.colPosition);
-            // Google Sheets sync for removal
-            const spreadsheetId = '1zXue8QE0GBV5GRWv7k5JSR67yRjMf3o7Cj9egY4Fguk';
-            await updateCellInSheet(
-              spreadsheetId,
-              editSquaresSheetName,
-              square.rowPosition,
-              square.colPosition,
-              ''
-            );
           } else {
             // Claim for selected profile
             await claimSquare({
@@ -107,17 +94,6 @@ function Admin() {
               colPosition: square.colPosition,
               profileId: parseInt(selectedProfileId),
             });
-            // Google Sheets sync for claim
-            const spreadsheetId = '1zXue8QE0GBV5GRWv7k5JSR67yRjMf3o7Cj9egY4Fguk';
-            const profileObj = allProfiles.find(p => p.id === parseInt(selectedProfileId));
-            const value = profileObj ? profileObj.fullName : '';
-            await updateCellInSheet(
-              spreadsheetId,
-              editSquaresSheetName,
-              square.rowPosition,
-              square.colPosition,
-              value
-            );
           }
           getSquaresByPool(editSquaresPool.id).then(setEditSquares);
         } catch (err) {
@@ -149,19 +125,6 @@ function Admin() {
           await unclaimSquare(editSquaresPool.id, selectedSquare.rowPosition, selectedSquare.colPosition);
         }
 
-        // --- Google Sheets Sync Logic ---
-        const spreadsheetId = '1zXue8QE0GBV5GRWv7k5JSR67yRjMf3o7Cj9egY4Fguk';
-        const value = selectedProfileId
-          ? (allProfiles.find(p => p.id === parseInt(selectedProfileId))?.fullName || '')
-          : '';
-        await updateCellInSheet(
-          spreadsheetId,
-          editSquaresSheetName,
-          selectedSquare.rowPosition,
-          selectedSquare.colPosition,
-          value
-        );
-
         setShowEditSquareModal(false);
         getSquaresByPool(editSquaresPool.id).then(setEditSquares);
       } catch (err) {
@@ -914,15 +877,6 @@ function Admin() {
                   if (!selectedSquare || !editSquaresPool) return;
                   try {
                     await unclaimSquare(editSquaresPool.id, selectedSquare.rowPosition, selectedSquare.colPosition);
-                    // Google Sheets sync for removal
-                    const spreadsheetId = '1zXue8QE0GBV5GRWv7k5JSR67yRjMf3o7Cj9egY4Fguk';
-                    await updateCellInSheet(
-                      spreadsheetId,
-                      editSquaresSheetName,
-                      selectedSquare.rowPosition,
-                      selectedSquare.colPosition,
-                      ''
-                    );
                     setShowEditSquareModal(false);
                     getSquaresByPool(editSquaresPool.id).then(setEditSquares);
                   } catch (err) {